@@ -0,0 +1,43 @@
+package de.g4memas0n.core.benchmark;
+
+import org.openjdk.jmh.Main;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The main class of the benchmark jar.
+ * <p>
+ * Runs the benchmarks matching the given arguments like the jmh main class does, but writes the results as json to
+ * {@code benchmark-results.json} unless another result format or file is given. The json results can be compared
+ * across commits with any jmh result visualizer. Unless other profilers are given, the gc profiler is enabled, so
+ * that the allocated bytes per operation are reported next to the time per operation.
+ * <p>
+ * Usage: {@code java -jar benchmarks.jar [jmh options] [benchmark regex]}, for example
+ * {@code java -jar benchmarks.jar -rff before.json BatchReader}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+
+        if (!options.contains("-rf")) {
+            options.add(0, "-rf");
+            options.add(1, "json");
+        }
+
+        if (!options.contains("-rff")) {
+            options.add(0, "-rff");
+            options.add(1, "benchmark-results.json");
+        }
+
+        if (!options.contains("-prof")) {
+            options.add(0, "-prof");
+            options.add(1, "gc");
+        }
+
+        Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,111 @@
+package de.g4memas0n.core.benchmark.bukkit;
+
+import de.g4memas0n.core.bukkit.command.BaseCommand;
+import de.g4memas0n.core.bukkit.command.SubCommand;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the command dispatch, tab-completion and permission test paths of the command classes.
+ * <p>
+ * The base command has eight sub-commands, each requiring one of two permissions, and the sender only has the second
+ * permission, so every permission test has to split and check the whole permission string. Run with {@code -prof gc}
+ * to additionally report the allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommandBenchmark {
+
+    private static final String[] NAMES = {"balance", "give", "take", "set", "reset", "top", "pay", "reload"};
+
+    private BaseCommand<JavaPlugin> base;
+    private SubCommand<JavaPlugin> give;
+    private Command command;
+    private CommandSender sender;
+    private String[] executeArguments;
+    private String[] completeArguments;
+    private String[] completeNestedArguments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        base = new BenchmarkCommand("economy", "economy.use");
+        for (String name : NAMES) {
+            SubCommand<JavaPlugin> sub = new BenchmarkCommand(name, "economy." + name + ";economy.admin");
+            sub.setUsage("/<parent> <command> <player> <amount>");
+            base.register(sub);
+
+            if (name.equals("give")) {
+                give = sub;
+            }
+        }
+
+        command = Mocks.command("economy");
+        sender = Mocks.sender("economy.use", "economy.admin");
+        executeArguments = new String[] {"give", "Notch", "100"};
+        completeArguments = new String[] {"t"};
+        completeNestedArguments = new String[] {"give", "N"};
+    }
+
+    @Benchmark
+    public boolean onCommand() {
+        return base.onCommand(sender, command, "economy", executeArguments);
+    }
+
+    @Benchmark
+    public List<String> onTabComplete() {
+        return base.onTabComplete(sender, command, "economy", completeArguments);
+    }
+
+    @Benchmark
+    public List<String> onTabCompleteNested() {
+        return base.onTabComplete(sender, command, "economy", completeNestedArguments);
+    }
+
+    @Benchmark
+    public boolean testPermission() {
+        return give.testPermission(sender);
+    }
+
+    private static final class BenchmarkCommand extends BaseCommand<JavaPlugin> {
+
+        private BenchmarkCommand(@NotNull String name, @NotNull String permission) {
+            super(name, permission);
+        }
+
+        @Override
+        public boolean execute(@NotNull CommandSender sender, @NotNull String alias, @NotNull String[] arguments) {
+            // Dispatch to the sub-commands if this is the base command, otherwise succeed if the arguments are complete
+            return arguments.length > 0 && (super.execute(sender, alias, arguments) || arguments.length == 2);
+        }
+
+        @Override
+        public @NotNull List<String> tabComplete(@NotNull CommandSender sender, @NotNull String alias,
+                                                 @NotNull String[] arguments) {
+            List<String> completions = super.tabComplete(sender, alias, arguments);
+            if (completions.isEmpty() && arguments.length == 1) {
+                completions = new ArrayList<>(List.of("Notch", "Jeb"));
+            }
+            return completions;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.g4memas0n.core.benchmark.bukkit;
+
+import de.g4memas0n.core.bukkit.config.BaseConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the typed getters of the config class.
+ * <p>
+ * The values are set in memory, so the benchmarks measure the lookup and conversion of the values only. Run with
+ * {@code -prof gc} to additionally report the allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConfigBenchmark {
+
+    private BaseConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = new BaseConfig(Path.of("benchmark.yml"));
+        config.set("economy.start-balance", "1250.50");
+        config.set("economy.max-balance", 1000000.0);
+        config.set("economy.tax", 5L);
+        config.set("locale", "de_DE");
+        config.set("unit", "SECONDS");
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimalFromString() {
+        return config.getBigDecimal("economy.start-balance");
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimalFromDouble() {
+        return config.getBigDecimal("economy.max-balance");
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimalFromLong() {
+        return config.getBigDecimal("economy.tax");
+    }
+
+    @Benchmark
+    public Locale getLocale() {
+        return config.getLocale("locale");
+    }
+
+    @Benchmark
+    public TimeUnit getEnum() {
+        return config.getEnum("unit", TimeUnit.class);
+    }
+
+    @Benchmark
+    public TimeUnit getEnumDefault() {
+        return config.getEnum("missing", TimeUnit.class, TimeUnit.MINUTES);
+    }
+}
@@ -0,0 +1,80 @@
+package de.g4memas0n.core.benchmark.bukkit;
+
+import de.g4memas0n.core.bukkit.util.I18n;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the translation and message formatting paths of the translation class.
+ * <p>
+ * The messages are loaded from the {@code benchmark} resource bundle, with a mocked plugin whose data folder does
+ * not contain custom bundles. Run with {@code -prof gc} to additionally report the allocated bytes per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class I18nBenchmark {
+
+    @Param({"en", "de"})
+    public String locale;
+
+    private Path dataFolder;
+    private I18n i18n;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        dataFolder = Files.createTempDirectory("benchmark");
+        i18n = new I18n(Mocks.plugin(dataFolder.toFile()), "benchmark");
+        i18n.load(Locale.forLanguageTag(locale));
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        i18n.unload();
+        Files.deleteIfExists(dataFolder);
+    }
+
+    @Benchmark
+    public String translate() {
+        return i18n.translate("balance");
+    }
+
+    @Benchmark
+    public String formatWithoutArguments() {
+        return i18n.format("commandGiveUsage");
+    }
+
+    @Benchmark
+    public String formatNumber() {
+        return i18n.format("balance", 1250);
+    }
+
+    @Benchmark
+    public String formatMixed() {
+        return i18n.format("transfer", 1250, "Notch", "Jeb", TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public String tl() {
+        return I18n.tl("balance", 1250);
+    }
+}
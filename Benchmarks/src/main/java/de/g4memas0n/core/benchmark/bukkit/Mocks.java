@@ -0,0 +1,57 @@
+package de.g4memas0n.core.benchmark.bukkit;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.mockito.Mockito;
+import java.io.File;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Factory methods for the mocked bukkit objects used by the benchmarks.
+ * <p>
+ * All mocks are stub-only, so they do not record their invocations. Otherwise, every invocation would allocate and
+ * retain an invocation record, which would distort the allocation profile and leak memory over long runs.
+ */
+final class Mocks {
+
+    private Mocks() {}
+
+    /**
+     * Creates a command sender that has the given permissions and discards all messages.
+     * @param permissions the permissions of the sender.
+     * @return the mocked command sender.
+     */
+    static CommandSender sender(String... permissions) {
+        Set<String> granted = Set.of(permissions);
+        CommandSender sender = Mockito.mock(CommandSender.class, Mockito.withSettings().stubOnly());
+        Mockito.when(sender.hasPermission(Mockito.anyString()))
+                .thenAnswer(invocation -> granted.contains(invocation.<String>getArgument(0)));
+        return sender;
+    }
+
+    /**
+     * Creates a bukkit command with the given name and permission message.
+     * @param name the name of the command.
+     * @return the mocked bukkit command.
+     */
+    static Command command(String name) {
+        Command command = Mockito.mock(Command.class, Mockito.withSettings().stubOnly());
+        Mockito.when(command.getName()).thenReturn(name);
+        Mockito.when(command.getPermissionMessage()).thenReturn("You do not have permission to use this command.");
+        return command;
+    }
+
+    /**
+     * Creates a plugin with the given data folder.
+     * @param dataFolder the data folder of the plugin.
+     * @return the mocked plugin.
+     */
+    static JavaPlugin plugin(File dataFolder) {
+        JavaPlugin plugin = Mockito.mock(JavaPlugin.class, Mockito.withSettings().stubOnly());
+        Mockito.when(plugin.getDataFolder()).thenReturn(dataFolder);
+        Mockito.when(plugin.getLogger()).thenReturn(Logger.getLogger("Benchmark"));
+        return plugin;
+    }
+}
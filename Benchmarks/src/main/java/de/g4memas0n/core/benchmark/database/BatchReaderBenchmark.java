@@ -0,0 +1,92 @@
+package de.g4memas0n.core.benchmark.database;
+
+import de.g4memas0n.core.database.util.BatchReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks the parsing throughput of the batch reader across script sizes.
+ * <p>
+ * The scripts mix table definitions, comments, quoted values and multi-line inserts, similar to real migrations.
+ * The largest script exceeds the threshold from which batch files are memory mapped.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchReaderBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int statements;
+
+    private Path file;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StringBuilder script = new StringBuilder();
+
+        for (int index = 0; index < statements; index++) {
+            if (index % 100 == 0) {
+                script.append("-- Section ").append(index / 100).append('\n')
+                        .append("CREATE TABLE IF NOT EXISTS table_").append(index).append(" (\n")
+                        .append("    id INTEGER NOT NULL,\n")
+                        .append("    name VARCHAR(64) NOT NULL, /* display name */\n")
+                        .append("    PRIMARY KEY (id)\n")
+                        .append(");\n");
+            } else {
+                script.append("INSERT INTO table_").append(index - index % 100).append(" (id, name)\n")
+                        .append("VALUES (").append(index).append(", 'name; with ''quotes'' ").append(index)
+                        .append("');\n");
+            }
+        }
+
+        content = script.toString().getBytes(StandardCharsets.UTF_8);
+        file = Files.createTempFile("benchmark", ".sql");
+        Files.write(file, content);
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<String> readPath() throws IOException {
+        return BatchReader.readBatch(file);
+    }
+
+    @Benchmark
+    public List<String> readStream() throws IOException {
+        return BatchReader.readBatch(new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public void streamPath(Blackhole blackhole) throws IOException {
+        try (Stream<String> queries = BatchReader.stream(file)) {
+            queries.forEach(blackhole::consume);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.g4memas0n.core.benchmark.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the latency of acquiring and releasing pooled connections of the flat-file connectors.
+ * <p>
+ * Eight threads compete for the four connections of the default flat-file pool, so the sampled latencies include
+ * the time waited for a connection to be released.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class ConnectionAcquireBenchmark {
+
+    @Param({"SQLite", "H2"})
+    public String database;
+
+    private EmbeddedDatabase embedded;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        embedded = new EmbeddedDatabase(database, new Properties());
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        embedded.close();
+    }
+
+    @Benchmark
+    public boolean acquire() throws SQLException {
+        Connection connection = embedded.getReadConnection();
+        try {
+            return connection.getAutoCommit();
+        } finally {
+            embedded.getConnector().closeConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package de.g4memas0n.core.benchmark.database;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.H2Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import de.g4memas0n.core.database.connector.SQLiteWALConnector;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * An embedded database in a temporary directory, used as benchmark fixture.
+ */
+final class EmbeddedDatabase {
+
+    private final Path directory;
+    private final Connector connector;
+
+    /**
+     * Creates and configures an embedded database of the given type.
+     * @param type the type of the database, either {@code SQLite}, {@code SQLiteWAL} or {@code H2}.
+     * @param properties the properties to configure the connector with.
+     * @throws IOException if the temporary directory could not be created.
+     */
+    EmbeddedDatabase(String type, Properties properties) throws IOException {
+        this.directory = Files.createTempDirectory("benchmark");
+        this.connector = switch (type) {
+            case "SQLite" -> new SQLiteConnector(directory.resolve("benchmark.db"));
+            case "SQLiteWAL" -> new SQLiteWALConnector(directory.resolve("benchmark.db"));
+            case "H2" -> new H2Connector(directory.resolve("benchmark"));
+            default -> throw new IllegalArgumentException("unknown database type " + type);
+        };
+        this.connector.configure(properties);
+    }
+
+    Connector getConnector() {
+        return connector;
+    }
+
+    /**
+     * Returns a connection that is allowed to write, which is the writer connection for single writer databases.
+     * @return a writable connection.
+     * @throws SQLException if a database access error occurs.
+     */
+    Connection getWriteConnection() throws SQLException {
+        return connector.getConnection();
+    }
+
+    /**
+     * Returns a connection for reading, which is a read-only pooled connection for single writer databases.
+     * @return a connection for reading.
+     * @throws SQLException if a database access error occurs.
+     */
+    Connection getReadConnection() throws SQLException {
+        if (connector instanceof SQLiteWALConnector wal) {
+            return wal.getReadConnection();
+        }
+        return connector.getConnection();
+    }
+
+    void close() throws IOException {
+        connector.shutdown();
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
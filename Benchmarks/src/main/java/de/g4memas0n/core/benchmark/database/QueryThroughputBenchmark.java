@@ -0,0 +1,119 @@
+package de.g4memas0n.core.benchmark.database;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the insert and select throughput through the connectors of the embedded databases.
+ * <p>
+ * Inserts are written as batches of one hundred rows in one transaction, selects look up a random row of the rows
+ * inserted during setup by its primary key. The throughput is reported in rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryThroughputBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int ROWS = 10000;
+
+    @Param({"SQLite", "SQLiteWAL", "H2"})
+    public String database;
+
+    @Param({"BALANCED", "THROUGHPUT"})
+    public String profile;
+
+    private EmbeddedDatabase embedded;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("profile", profile);
+        embedded = new EmbeddedDatabase(database, properties);
+
+        try (Connection connection = embedded.getWriteConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bench (id BIGINT NOT NULL, name VARCHAR(64) NOT NULL, "
+                    + "amount BIGINT NOT NULL, PRIMARY KEY (id))");
+        }
+
+        while (nextId < ROWS) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void teardown() throws IOException {
+        embedded.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        Connection connection = embedded.getWriteConnection();
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO bench (id, name, amount) VALUES (?, ?, ?)")) {
+                for (int index = 0; index < BATCH_SIZE; index++) {
+                    long id = nextId++;
+                    statement.setLong(1, id);
+                    statement.setString(2, "name-" + id);
+                    statement.setLong(3, id * 31);
+                    statement.addBatch();
+                }
+
+                int[] counts = statement.executeBatch();
+                connection.commit();
+                return counts;
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            }
+        } finally {
+            embedded.getConnector().closeConnection(connection);
+        }
+    }
+
+    @Benchmark
+    public long selectById() throws SQLException {
+        Connection connection = embedded.getReadConnection();
+
+        try (PreparedStatement statement = connection.prepareStatement("SELECT amount FROM bench WHERE id = ?")) {
+            statement.setLong(1, ThreadLocalRandom.current().nextLong(ROWS));
+
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getLong(1) : -1;
+            }
+        } finally {
+            embedded.getConnector().closeConnection(connection);
+        }
+    }
+}
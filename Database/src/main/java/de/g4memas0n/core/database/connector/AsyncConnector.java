@@ -0,0 +1,297 @@
+package de.g4memas0n.core.database.connector;
+
+import com.zaxxer.hikari.HikariDataSource;
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import de.g4memas0n.core.database.metrics.SlowQueryLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * A database connector decorator that provides asynchronous access to the decorated connector.
+ * <p>
+ * All asynchronous operations run on virtual threads if the runtime supports them, otherwise on a fixed pool of daemon
+ * threads. The count of concurrently running operations is limited to the maximum pool size of the decorated
+ * connector, so waiting operations do not occupy pool connections while the pool is exhausted. Without virtual
+ * threads, the thread pool has the same size as this limit, so waiting operations are queued instead of occupying
+ * platform threads.
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class AsyncConnector implements Connector {
+
+    /**
+     * Logger instance used by the async connector.
+     */
+    public static Logger logger = Logger.getLogger(AsyncConnector.class.getName());
+
+    private static final int DEFAULT_CONCURRENCY = 10;
+
+    private final Connector connector;
+    private final int concurrency;
+    private volatile ExecutorService executor;
+    private Semaphore permits;
+
+    /**
+     * Constructs an async connector that limits the concurrency to the maximum pool size of the given connector.
+     * @param connector the connector to decorate.
+     */
+    public AsyncConnector(@NotNull Connector connector) {
+        this(connector, 0);
+    }
+
+    /**
+     * Constructs an async connector with the given concurrency limit.
+     * @param connector the connector to decorate.
+     * @param concurrency the maximum count of concurrent operations, or zero to use the maximum pool size.
+     */
+    public AsyncConnector(@NotNull Connector connector, int concurrency) {
+        this.connector = connector;
+        this.concurrency = concurrency;
+    }
+
+    @Override
+    public @NotNull String getVendorName() {
+        return connector.getVendorName();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return connector.isRemote();
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        connector.configure(properties);
+    }
+
+    @Override
+    public void shutdown() {
+        ExecutorService executor = this.executor;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warning("Timed out while waiting for asynchronous operations");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        connector.shutdown();
+    }
+
+    @Override
+    public boolean supportsShutdownHooks() {
+        return connector.supportsShutdownHooks();
+    }
+
+    @Override
+    public void addShutdownHook(@NotNull Runnable hook) {
+        connector.addShutdownHook(hook);
+    }
+
+    @Override
+    public @Nullable ConnectorMetrics getMetrics() {
+        return connector.getMetrics();
+    }
+
+    @Override
+    public @Nullable SlowQueryLog getSlowQueryLog() {
+        return connector.getSlowQueryLog();
+    }
+
+    @Override
+    public @NotNull Connection getConnection() throws SQLException {
+        return connector.getConnection();
+    }
+
+    /**
+     * Asynchronously applies the given function to a connection.
+     * @param function the function to apply to the connection.
+     * @param <T> the type of the result.
+     * @return a future that completes with the result of the function.
+     */
+    public <T> @NotNull CompletableFuture<T> supply(@NotNull ConnectionFunction<T> function) {
+        ExecutorService executor = getExecutor();
+        Semaphore permits = this.permits;
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+
+            try {
+                Connection connection = connector.getConnection();
+                try {
+                    return function.apply(connection);
+                } finally {
+                    connector.closeConnection(connection);
+                }
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    /**
+     * Asynchronously executes the given query and maps its result set.
+     * @param query the parameterized query to execute.
+     * @param function the function to map the result set with.
+     * @param parameters the values of the query parameters.
+     * @param <T> the type of the result.
+     * @return a future that completes with the mapped result.
+     */
+    public <T> @NotNull CompletableFuture<T> query(@NotNull String query, @NotNull ResultSetFunction<T> function,
+                                                   @Nullable Object... parameters) {
+        return supply(connection -> {
+            try (PreparedStatement statement = prepare(connection, query, parameters);
+                 ResultSet result = statement.executeQuery()) {
+                return function.apply(result);
+            }
+        });
+    }
+
+    /**
+     * Asynchronously executes the given update.
+     * @param query the parameterized update to execute.
+     * @param parameters the values of the query parameters.
+     * @return a future that completes with the update count.
+     */
+    public @NotNull CompletableFuture<Integer> update(@NotNull String query, @Nullable Object... parameters) {
+        return supply(connection -> {
+            try (PreparedStatement statement = prepare(connection, query, parameters)) {
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Asynchronously applies the given function to a connection inside a transaction.
+     * <p>
+     * The transaction is committed if the function completes normally and rolled back otherwise.
+     * @param function the function to apply to the connection.
+     * @param <T> the type of the result.
+     * @return a future that completes with the result of the function.
+     */
+    public <T> @NotNull CompletableFuture<T> transaction(@NotNull ConnectionFunction<T> function) {
+        return supply(connection -> {
+            connection.setAutoCommit(false);
+
+            try {
+                T result = function.apply(connection);
+                connection.commit();
+                connection.setAutoCommit(true);
+                return result;
+            } catch (Throwable ex) {
+                // Auto-commit stays disabled, as enabling it would commit a transaction that was not rolled back
+                try {
+                    connection.rollback();
+                } catch (SQLException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+        });
+    }
+
+    @Override
+    public boolean isWrapperFor(@NotNull Class<?> type) throws SQLException {
+        return type.isInstance(this) || connector.isWrapperFor(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(@NotNull Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        return connector.unwrap(type);
+    }
+
+    private @NotNull ExecutorService getExecutor() {
+        ExecutorService executor = this.executor;
+        if (executor == null) {
+            // Created on first use, as the concurrency depends on the pool size of the configured connector
+            synchronized (this) {
+                if ((executor = this.executor) == null) {
+                    int concurrency = getConcurrency();
+                    this.permits = new Semaphore(concurrency, true);
+                    this.executor = executor = createExecutor(concurrency);
+                }
+            }
+        }
+        return executor;
+    }
+
+    private int getConcurrency() {
+        if (concurrency > 0) {
+            return concurrency;
+        }
+
+        try {
+            if (connector.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource dataSource = connector.unwrap(HikariDataSource.class);
+                if (dataSource != null) {
+                    return dataSource.getMaximumPoolSize();
+                }
+            }
+        } catch (SQLException ignored) { }
+
+        return DEFAULT_CONCURRENCY;
+    }
+
+    private static @NotNull PreparedStatement prepare(@NotNull Connection connection, @NotNull String query,
+                                                      @Nullable Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(query);
+
+        try {
+            if (parameters != null) {
+                for (int index = 0; index < parameters.length; index++) {
+                    if (parameters[index] == null) {
+                        statement.setNull(index + 1, Types.NULL);
+                    } else {
+                        statement.setObject(index + 1, parameters[index]);
+                    }
+                }
+            }
+        } catch (SQLException ex) {
+            statement.close();
+            throw ex;
+        }
+
+        return statement;
+    }
+
+    private static @NotNull ExecutorService createExecutor(int concurrency) {
+        try {
+            // Virtual threads are only available on java 21 or later
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            logger.info("Virtual threads not available, falling back to platform threads");
+            return Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "Async Connector");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A function that works with a database connection.
+ * @param <T> the type of the result.
+ */
+@FunctionalInterface
+public interface ConnectionFunction<T> {
+
+    /**
+     * Applies this function to the given connection.
+     * @param connection the connection to work with.
+     * @return the result of the function.
+     * @throws SQLException if a database access error occurs.
+     */
+    T apply(@NotNull Connection connection) throws SQLException;
+
+}
@@ -1,6 +1,9 @@
 package de.g4memas0n.core.database.connector;
 
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import de.g4memas0n.core.database.metrics.SlowQueryLog;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Wrapper;
@@ -35,6 +38,38 @@ public interface Connector extends Wrapper {
      */
     void shutdown();
 
+    /**
+     * Gets whether the database connector runs registered shutdown hooks when it shuts down.
+     * @return true, if the connector supports shutdown hooks.
+     */
+    default boolean supportsShutdownHooks() {
+        return false;
+    }
+
+    /**
+     * Registers a hook that runs once when the database connector shuts down, before its connections are closed.
+     * <p>
+     * Connectors that do not {@link #supportsShutdownHooks() support shutdown hooks} ignore the given hook.
+     * @param hook the shutdown hook to register.
+     */
+    default void addShutdownHook(@NotNull Runnable hook) { }
+
+    /**
+     * Gets the metrics recorded by the database connector.
+     * @return the connector metrics, or null if the connector does not record metrics.
+     */
+    default @Nullable ConnectorMetrics getMetrics() {
+        return null;
+    }
+
+    /**
+     * Gets the log of slow statements executed through the database connector.
+     * @return the slow query log, or null if the connector does not record slow statements.
+     */
+    default @Nullable SlowQueryLog getSlowQueryLog() {
+        return null;
+    }
+
     /**
      * Attempts to close the given connection to the database.
      * @param connection the connection to close.
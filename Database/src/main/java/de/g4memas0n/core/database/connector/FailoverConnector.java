@@ -0,0 +1,334 @@
+package de.g4memas0n.core.database.connector;
+
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import de.g4memas0n.core.database.metrics.SlowQueryLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A database connector decorator that protects callers from an unavailable database with a circuit breaker.
+ * <p>
+ * The primary connector is checked in the background by validating one of its connections. After the configured
+ * count of consecutive failed checks or connection attempts, the circuit {@link State#OPEN opens} and further calls
+ * fail fast with a {@link SQLTransientConnectionException} instead of blocking for the connection timeout, or are
+ * served by the secondary connector, if one is given. Once the open timeout elapsed, the circuit
+ * {@link State#HALF_OPEN half-opens} and lets a single call or health check probe the primary, which closes the
+ * circuit on success and opens it again on failure.
+ * <p>
+ * On configuration, the primary and the secondary are configured with a copy of the given properties. Properties
+ * prefixed with {@code secondary.} override the shared properties for the secondary, for example
+ * {@code secondary.serverName}.
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class FailoverConnector implements Connector {
+
+    /**
+     * Logger instance used by the failover connector.
+     */
+    public static Logger logger = Logger.getLogger(FailoverConnector.class.getName());
+
+    private static final Circuit CLOSED = new Circuit(State.CLOSED, 0);
+
+    private final AtomicReference<Circuit> circuit = new AtomicReference<>(CLOSED);
+    private final AtomicInteger failures = new AtomicInteger();
+    private final Connector primary;
+    private final Connector secondary;
+    private ScheduledExecutorService scheduler;
+    private int failureThreshold = 3;
+    private long openTimeout = 30000;
+    private long checkInterval = 5000;
+    private int validationTimeout = 5;
+
+    /**
+     * Constructs a failover connector without a secondary, that fails fast while the circuit is open.
+     * @param primary the connector to protect.
+     */
+    public FailoverConnector(@NotNull Connector primary) {
+        this(primary, null);
+    }
+
+    /**
+     * Constructs a failover connector that fails over to the given secondary while the circuit is open.
+     * @param primary the connector to protect.
+     * @param secondary the connector to fail over to, or null to fail fast.
+     */
+    public FailoverConnector(@NotNull Connector primary, @Nullable Connector secondary) {
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     * @return the circuit state.
+     */
+    public @NotNull State getState() {
+        return circuit.get().state();
+    }
+
+    /**
+     * Sets the count of consecutive failures that opens the circuit.
+     * @param threshold the new failure threshold.
+     * @throws IllegalArgumentException if the given threshold is not positive.
+     */
+    public void setFailureThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+
+        this.failureThreshold = threshold;
+    }
+
+    /**
+     * Sets the time the circuit stays open before it half-opens to probe the primary, in milliseconds.
+     * @param timeout the new open timeout.
+     */
+    public void setOpenTimeout(long timeout) {
+        this.openTimeout = timeout;
+    }
+
+    /**
+     * Sets the interval between the background health checks, in milliseconds.
+     * <p>
+     * This setting must be changed before the connector is configured.
+     * @param interval the new check interval.
+     * @throws IllegalArgumentException if the given interval is not positive.
+     */
+    public void setCheckInterval(long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+
+        this.checkInterval = interval;
+    }
+
+    /**
+     * Sets the time to wait for a connection to be validated by a health check, in seconds.
+     * @param timeout the new validation timeout.
+     */
+    public void setValidationTimeout(int timeout) {
+        this.validationTimeout = timeout;
+    }
+
+    @Override
+    public @NotNull String getVendorName() {
+        return primary.getVendorName();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return primary.isRemote();
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        Properties primaryProperties = new Properties();
+        Properties secondaryProperties = new Properties();
+
+        properties.forEach((key, value) -> {
+            if (!key.toString().startsWith("secondary.")) {
+                primaryProperties.put(key, value);
+                secondaryProperties.put(key, value);
+            }
+        });
+        properties.forEach((key, value) -> {
+            if (key.toString().startsWith("secondary.")) {
+                secondaryProperties.put(key.toString().substring("secondary.".length()), value);
+            }
+        });
+
+        primary.configure(primaryProperties);
+        if (secondary != null) {
+            secondary.configure(secondaryProperties);
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Failover Health Check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+
+        primary.shutdown();
+        if (secondary != null) {
+            secondary.shutdown();
+        }
+    }
+
+    @Override
+    public boolean supportsShutdownHooks() {
+        return primary.supportsShutdownHooks();
+    }
+
+    @Override
+    public void addShutdownHook(@NotNull Runnable hook) {
+        primary.addShutdownHook(hook);
+    }
+
+    @Override
+    public @Nullable ConnectorMetrics getMetrics() {
+        return primary.getMetrics();
+    }
+
+    @Override
+    public @Nullable SlowQueryLog getSlowQueryLog() {
+        return primary.getSlowQueryLog();
+    }
+
+    @Override
+    public @NotNull Connection getConnection() throws SQLException {
+        Circuit current = circuit.get();
+
+        if (current.state() == State.OPEN) {
+            // This call is the only one that probes the primary, all others keep failing over
+            if ((current = halfOpen(current)) == null) {
+                return failover(null);
+            }
+        } else if (current.state() == State.HALF_OPEN) {
+            return failover(null);
+        }
+
+        try {
+            Connection connection = primary.getConnection();
+            onSuccess(current);
+            return connection;
+        } catch (SQLException ex) {
+            onFailure(current, ex);
+            return failover(ex);
+        } catch (RuntimeException ex) {
+            // A failed probe must open the circuit again, otherwise it stays half-open forever
+            onFailure(current, ex);
+            throw ex;
+        }
+    }
+
+    private @NotNull Connection failover(@Nullable SQLException cause) throws SQLException {
+        if (secondary != null) {
+            return secondary.getConnection();
+        }
+
+        if (cause != null) {
+            throw cause;
+        }
+
+        throw new SQLTransientConnectionException("Circuit open, database currently not available");
+    }
+
+    private void check() {
+        Circuit current = circuit.get();
+
+        if (current.state() == State.OPEN) {
+            if ((current = halfOpen(current)) == null) {
+                return;
+            }
+        } else if (current.state() == State.HALF_OPEN) {
+            // A caller is already probing the primary
+            return;
+        }
+
+        try {
+            Connection connection = primary.getConnection();
+
+            try {
+                if (!connection.isValid(validationTimeout)) {
+                    throw new SQLException("Connection validation failed");
+                }
+            } finally {
+                primary.closeConnection(connection);
+            }
+
+            onSuccess(current);
+        } catch (SQLException | RuntimeException ex) {
+            onFailure(current, ex);
+        }
+    }
+
+    private @Nullable Circuit halfOpen(@NotNull Circuit current) {
+        if (System.currentTimeMillis() - current.openedAt() < openTimeout) {
+            return null;
+        }
+
+        Circuit next = new Circuit(State.HALF_OPEN, current.openedAt());
+        return circuit.compareAndSet(current, next) ? next : null;
+    }
+
+    private void onSuccess(@NotNull Circuit observed) {
+        if (failures.get() != 0) {
+            failures.set(0);
+        }
+
+        // Only the circuit that was observed before the attempt is closed, so that the hot path does not write to it
+        // and a late success does not close a circuit that another caller opened in the meantime
+        if (observed.state() != State.CLOSED && circuit.compareAndSet(observed, CLOSED)) {
+            logger.info("Database available again, closed circuit");
+        }
+    }
+
+    private void onFailure(@NotNull Circuit observed, @NotNull Exception cause) {
+        if (observed.state() == State.HALF_OPEN || failures.incrementAndGet() >= failureThreshold) {
+            open(observed, cause);
+        }
+    }
+
+    private void open(@NotNull Circuit observed, @NotNull Exception cause) {
+        // The open time is only set by the thread that opens the circuit, so that it is never extended
+        if (circuit.compareAndSet(observed, new Circuit(State.OPEN, System.currentTimeMillis()))) {
+            logger.log(Level.WARNING, "Database not available, opened circuit for " + openTimeout + "ms", cause);
+        }
+    }
+
+    @Override
+    public boolean isWrapperFor(@NotNull Class<?> type) throws SQLException {
+        return type.isInstance(this) || primary.isWrapperFor(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(@NotNull Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(type);
+    }
+
+    /**
+     * The states of the circuit breaker.
+     */
+    public enum State {
+
+        /**
+         * The primary is available and serves all calls.
+         */
+        CLOSED,
+
+        /**
+         * The primary is not available, calls fail fast or are served by the secondary.
+         */
+        OPEN,
+
+        /**
+         * The primary is probed by a single call or health check, all other calls are handled as if open.
+         */
+        HALF_OPEN
+    }
+
+    private record Circuit(@NotNull State state, long openedAt) { }
+}
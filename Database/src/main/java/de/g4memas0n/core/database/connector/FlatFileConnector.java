@@ -1,28 +1,53 @@
 package de.g4memas0n.core.database.connector;
 
+import com.zaxxer.hikari.HikariConfig;
 import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 /**
  * An abstract database connector for connecting to a file based database.
+ * <p>
+ * Connections are pooled through HikariCP, so repeated queries reuse already opened connections instead of opening
+ * the database file each time. Unless configured otherwise, the pool keeps one idle connection and opens up to four
+ * connections, which are evicted after being idle for a minute.
+ * <p>
+ * The implementing connectors provide tuning defaults for each {@link Profile profile}, which can be selected with
+ * the {@code profile} property and default to {@link Profile#BALANCED}. Explicitly set properties always take
+ * precedence over the profile defaults.
+ * <p>
+ * The database can be {@link #backup(Path) backed up} while it is in use, without copying the database file.
+ * @see HikariConnector
  * @see Connector
  */
 @SuppressWarnings("unused")
-public abstract class FlatFileConnector implements Connector {
+public abstract class FlatFileConnector extends HikariConnector {
 
     /**
      * Logger instance used by the implementing flat-file connectors.
      */
     public static Logger logger = Logger.getLogger(FlatFileConnector.class.getName());
 
+    private static final ExecutorService BACKUP_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Database Backup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private final Path path;
-    private Properties properties;
-    private String url;
+    private volatile Properties driverProperties = new Properties();
 
     /**
      * Constructs a file based connector.
@@ -32,6 +57,15 @@ public abstract class FlatFileConnector implements Connector {
         this.path = path;
     }
 
+    /**
+     * Constructs a connector to a database that is not stored in a file.
+     * <p>
+     * Implementations that use this constructor must override {@link #createUrl()}.
+     */
+    protected FlatFileConnector() {
+        this.path = null;
+    }
+
     @Override
     public boolean isRemote() {
         return false;
@@ -39,36 +73,160 @@ public abstract class FlatFileConnector implements Connector {
 
     @Override
     public void configure(@NotNull Properties properties) {
-        this.properties = properties;
-        this.url = createUrl(path);
+        String profile = (String) properties.remove("profile");
+        try {
+            Profile selected = profile != null ? Profile.valueOf(profile.toUpperCase(Locale.ROOT)) : Profile.BALANCED;
+            applyProfile(selected, properties);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("unknown profile " + profile, ex);
+        }
+
+        properties.setProperty("jdbcUrl", createUrl());
+        properties.remove("dataSourceClassName");
+
+        // Setup pool defaults suitable for file based databases if not already set
+        properties.putIfAbsent("maximumPoolSize", "4");
+        properties.putIfAbsent("minimumIdle", "1");
+        properties.putIfAbsent("idleTimeout", "60000");
+        super.configure(properties);
     }
 
     @Override
-    public void shutdown() { }
+    protected @NotNull HikariConfig createConfig(@NotNull Properties properties) {
+        HikariConfig config = super.createConfig(properties);
+
+        // Keep the resolved driver properties, so that dedicated connections are opened like the pooled connections
+        Properties driver = new Properties();
+        driver.putAll(config.getDataSourceProperties());
+        if (config.getUsername() != null) {
+            driver.setProperty("user", config.getUsername());
+        }
+        if (config.getPassword() != null) {
+            driver.setProperty("password", config.getPassword());
+        }
+
+        driverProperties = driver;
+        return config;
+    }
 
     public abstract @NotNull String createUrl(@NotNull Path path);
 
-    @Override
-    public synchronized @NotNull Connection getConnection() throws SQLException {
-        if (url == null) {
-            url = createUrl(path);
+    /**
+     * Creates the jdbc url of the database of this connector.
+     * @return the jdbc url of the database.
+     */
+    protected @NotNull String createUrl() {
+        if (path == null) {
+            throw new IllegalStateException("connector without path must override createUrl");
         }
-        return DriverManager.getConnection(url, properties);
+        return createUrl(path);
     }
 
+    /**
+     * Creates a consistent backup of the database in the given file.
+     * <p>
+     * The backup runs on a background thread that is shared by all flat-file connectors, with a dedicated connection
+     * outside the pool, so writers keep progressing while the database is copied. Backups are run one after another.
+     * Each backup is written to its own temporary file next to the target first, which replaces the target once the
+     * backup completed, so an existing backup is never left torn.
+     * @param target the path to the backup file.
+     * @return a future that completes once the backup is written.
+     */
+    public @NotNull CompletableFuture<Void> backup(@NotNull Path target) {
+        return CompletableFuture.runAsync(() -> {
+            Path temp = null;
+
+            try {
+                Path directory = target.toAbsolutePath().getParent();
+                temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+
+                try (Connection connection = openConnection()) {
+                    backup(connection, temp);
+                }
+
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                logger.info("Created database backup " + target);
+            } catch (SQLException | IOException ex) {
+                if (temp != null) {
+                    try {
+                        Files.deleteIfExists(temp);
+                    } catch (IOException ignored) { }
+                }
+
+                throw new CompletionException(ex);
+            }
+        }, BACKUP_EXECUTOR);
+    }
+
+    /**
+     * Opens a dedicated connection to the database outside the pool, for example for backups.
+     * <p>
+     * The connection is opened with the same credentials and driver properties as the pooled connections.
+     * @return a new connection to the database.
+     * @throws SQLException if a database access error occurs.
+     */
+    protected @NotNull Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(createUrl(), driverProperties);
+    }
+
+    /**
+     * Writes a consistent backup of the database to the given file, using the given connection.
+     * @param connection the dedicated connection to the database.
+     * @param target the path to the backup file, which is empty.
+     * @throws SQLException if a database access error occurs.
+     */
+    protected abstract void backup(@NotNull Connection connection, @NotNull Path target) throws SQLException;
+
+    /**
+     * Returns the given path as quoted sql string literal.
+     * @param path the path to quote.
+     * @return the quoted path.
+     */
+    protected static @NotNull String quote(@NotNull Path path) {
+        return "'" + path.toAbsolutePath().toString().replace("'", "''") + "'";
+    }
+
+    /**
+     * Applies the tuning defaults of the given profile to the given properties.
+     * <p>
+     * Implementations must not override properties that are already set.
+     * @param profile the selected tuning profile.
+     * @param properties the driver or data source properties.
+     */
+    protected void applyProfile(@NotNull Profile profile, @NotNull Properties properties) { }
+
     @Override
     public boolean isWrapperFor(@NotNull Class<?> type) {
-        return Connector.class.equals(type) || Connection.class.isAssignableFrom(type);
+        return super.isWrapperFor(type) || Connection.class.isAssignableFrom(type);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T unwrap(@NotNull Class<T> type) throws SQLException {
-        if (Connector.class.equals(type)) {
-            return (T) this;
-        } else if (Connection.class.isAssignableFrom(type)) {
+        if (Connection.class.isAssignableFrom(type)) {
             return (T) getConnection();
         }
-        throw new SQLException("Cannot unwrap to " + type);
+        return super.unwrap(type);
+    }
+
+    /**
+     * The tuning profiles for file based databases.
+     */
+    public enum Profile {
+
+        /**
+         * Favours durability, every commit is synced to disk before it returns.
+         */
+        DURABLE,
+
+        /**
+         * Balances durability and performance, a commit may be lost on power failure but never corrupts the database.
+         */
+        BALANCED,
+
+        /**
+         * Favours throughput, recent commits may be lost on crashes. Suitable for caches and rebuildable data.
+         */
+        THROUGHPUT
     }
 }
@@ -2,6 +2,9 @@ package de.g4memas0n.core.database.connector;
 
 import org.jetbrains.annotations.NotNull;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
 
 /**
@@ -21,6 +24,12 @@ public class H2Connector extends FlatFileConnector {
         super(path);
     }
 
+    /**
+     * Constructs a h2 connector to a database that is not stored in a file.
+     * @see FlatFileConnector#FlatFileConnector()
+     */
+    protected H2Connector() { }
+
     @Override
     public @NotNull String getVendorName() {
         return "H2";
@@ -38,6 +47,50 @@ public class H2Connector extends FlatFileConnector {
         super.configure(properties);
     }
 
+    /**
+     * Applies the setting defaults of the given profile.
+     * <p>
+     * All profiles use row level locking with read committed isolation and a lock timeout. The
+     * {@link Profile#DURABLE durable} profile commits the store immediately, the {@link Profile#BALANCED balanced}
+     * profile uses the default commit delay with a larger cache and the {@link Profile#THROUGHPUT throughput} profile
+     * delays commits further and disables the retention of old store chunks.
+     * @param profile the selected tuning profile.
+     * @param properties the driver or data source properties.
+     */
+    @Override
+    protected void applyProfile(@NotNull Profile profile, @NotNull Properties properties) {
+        switch (profile) {
+            case DURABLE -> setDefault(properties, "WRITE_DELAY", "0");
+            case BALANCED -> {
+                setDefault(properties, "CACHE_SIZE", "32768");
+                setDefault(properties, "WRITE_DELAY", "500");
+            }
+            case THROUGHPUT -> {
+                setDefault(properties, "CACHE_SIZE", "131072");
+                setDefault(properties, "WRITE_DELAY", "2000");
+                setDefault(properties, "RETENTION_TIME", "0");
+            }
+        }
+
+        setDefault(properties, "LOCK_MODE", "3");
+        setDefault(properties, "LOCK_TIMEOUT", "5000");
+    }
+
+    /**
+     * Writes a backup of the database to the given zip file.
+     * <p>
+     * The backup is created online by copying the store file, while other connections keep reading and writing.
+     * @param connection the dedicated connection to the database.
+     * @param target the path to the backup file, which is empty.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    protected void backup(@NotNull Connection connection, @NotNull Path target) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("BACKUP TO " + quote(target));
+        }
+    }
+
     @Override
     public @NotNull String createUrl(@NotNull Path path) {
         return "jdbc:h2:file:" + path;
@@ -0,0 +1,77 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+
+/**
+ * A h2 database connector for a named in-memory database.
+ * <p>
+ * The database is opened with a negative close delay, so it stays alive while the pool evicts and replaces its
+ * connections, and is closed explicitly when the connector is {@link #shutdown() shut down}. Connectors with the same
+ * name share the same database within the same process.
+ * @see H2Connector
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class H2MemoryConnector extends H2Connector {
+
+    private final String name;
+
+    /**
+     * Constructs an in-memory h2 database connector.
+     * @param name the name of the in-memory database.
+     * @throws IllegalArgumentException if the name contains a semicolon.
+     * @see H2Connector
+     */
+    public H2MemoryConnector(@NotNull String name) {
+        if (name.indexOf(';') >= 0) {
+            throw new IllegalArgumentException("name must not contain a semicolon");
+        }
+
+        this.name = name;
+    }
+
+    @Override
+    public void shutdown() {
+        runShutdownHooks();
+
+        try {
+            // The database only exists if this connector was configured, and is opened with the configured credentials
+            if (unwrap(DataSource.class) != null) {
+                try (Connection connection = openConnection();
+                     Statement statement = connection.createStatement()) {
+                    statement.execute("SHUTDOWN");
+                }
+            }
+        } catch (SQLException ex) {
+            logger.log(Level.WARNING, "Could not close in-memory database", ex);
+        }
+
+        super.shutdown();
+    }
+
+    /**
+     * Writes a backup of the database to the given file as a zip compressed sql script.
+     * <p>
+     * As in-memory databases have no store file, the backup can be restored by running the script.
+     * @param connection the dedicated connection to the database.
+     * @param target the path to the backup file, which is empty.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    protected void backup(@NotNull Connection connection, @NotNull Path target) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SCRIPT TO " + quote(target) + " COMPRESSION ZIP");
+        }
+    }
+
+    @Override
+    protected @NotNull String createUrl() {
+        return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+    }
+}
@@ -3,16 +3,30 @@ package de.g4memas0n.core.database.connector;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import com.zaxxer.hikari.util.PropertyElf;
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import de.g4memas0n.core.database.metrics.InstrumentedConnection;
+import de.g4memas0n.core.database.metrics.SlowQueryLog;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * A database connector that connects through HikariCP.
+ * <p>
+ * If the {@code metrics} property is set to true, the connector records the connection acquire and usage times of
+ * its pools and the execution times of all statements, which are exposed through {@link #getMetrics()} and via JMX.
+ * <p>
+ * If the {@code slowQueryThreshold} property is set to a time in milliseconds, statements that take longer are logged
+ * with their bind parameters, and the most recent ones, up to {@code slowQueryLogSize} (default 100), are kept in the
+ * {@link #getSlowQueryLog() slow query log}. Without both properties, connections are returned unwrapped.
  * @see Connector
  */
 @SuppressWarnings("unused")
@@ -22,7 +36,10 @@ public abstract class HikariConnector implements Connector {
      * Logger instance used by the implementing hikari connectors.
      */
     public static Logger logger = Logger.getLogger(HikariConnector.class.getName());
+    private final List<Runnable> shutdownHooks = new CopyOnWriteArrayList<>();
     private HikariDataSource dataSource;
+    private ConnectorMetrics metrics;
+    private SlowQueryLog slowLog;
 
     @Override
     public boolean isRemote() {
@@ -31,33 +48,114 @@ public abstract class HikariConnector implements Connector {
 
     @Override
     public void configure(@NotNull Properties properties) {
+        if (Boolean.parseBoolean((String) properties.remove("metrics"))) {
+            metrics = new ConnectorMetrics();
+        }
+
+        String threshold = (String) properties.remove("slowQueryThreshold");
+        String size = (String) properties.remove("slowQueryLogSize");
+        if (threshold != null) {
+            slowLog = new SlowQueryLog(Long.parseLong(threshold), size != null ? Integer.parseInt(size) : 100);
+        }
+
+        dataSource = new HikariDataSource(createConfig(properties));
+
+        if (metrics != null) {
+            metrics.register(dataSource.getPoolName());
+        }
+    }
+
+    /**
+     * Creates a hikari config for the given properties.
+     * <p>
+     * Properties that are not known to the hikari config are assumed to belong to the data source or driver.
+     * @param properties the hikari config and data source properties.
+     * @return the created hikari config.
+     */
+    protected @NotNull HikariConfig createConfig(@NotNull Properties properties) {
         HikariConfig config = new HikariConfig();
         Properties configProperties = new Properties();
 
         Set<String> propertyNames = PropertyElf.getPropertyNames(config.getClass());
         properties.forEach((key, value) -> {
             String propertyName = key.toString();
-            if (!propertyName.startsWith("dataSource.")) {
-                if (propertyNames.contains(propertyName)) {
-                    // The config has this property
-                    configProperties.put(key, value);
-                } else {
-                    // The config does not have this property, assume it belongs to the data source
-                    configProperties.put("dataSource." + key, value);
-                }
+            if (propertyName.startsWith("dataSource.") || propertyNames.contains(propertyName)) {
+                // The property is already prefixed or the config has this property
+                configProperties.put(key, value);
+            } else {
+                // The config does not have this property, assume it belongs to the data source
+                configProperties.put("dataSource." + key, value);
             }
         });
 
         PropertyElf.setTargetFromProperties(config, configProperties);
         config.setAutoCommit(true);
-        dataSource = new HikariDataSource(config);
+
+        if (metrics != null) {
+            config.setMetricsTrackerFactory(metrics);
+        }
+
+        return config;
+    }
+
+    /**
+     * Sets the given data source property, unless it is already set with or without the {@code dataSource.} prefix.
+     * @param properties the hikari config and data source properties.
+     * @param key the unprefixed name of the data source property.
+     * @param value the default value of the data source property.
+     */
+    protected static void setDefault(@NotNull Properties properties, @NotNull String key, @NotNull String value) {
+        if (!properties.containsKey(key) && !properties.containsKey("dataSource." + key)) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    @Override
+    public boolean supportsShutdownHooks() {
+        return true;
+    }
+
+    @Override
+    public void addShutdownHook(@NotNull Runnable hook) {
+        shutdownHooks.add(hook);
+    }
+
+    /**
+     * Runs and removes all registered shutdown hooks.
+     * <p>
+     * Implementations that close additional resources on shutdown must call this method before closing them.
+     */
+    protected void runShutdownHooks() {
+        for (Runnable hook : shutdownHooks) {
+            if (shutdownHooks.remove(hook)) {
+                try {
+                    hook.run();
+                } catch (RuntimeException ex) {
+                    logger.log(Level.WARNING, "Could not run shutdown hook", ex);
+                }
+            }
+        }
     }
 
     @Override
     public void shutdown() {
+        runShutdownHooks();
         if (dataSource != null) {
             dataSource.close();
         }
+        if (metrics != null) {
+            metrics.unregister();
+        }
+    }
+
+    @Override
+    public @Nullable ConnectorMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public @Nullable SlowQueryLog getSlowQueryLog() {
+        return slowLog;
     }
 
     @Override
@@ -65,7 +163,19 @@ public abstract class HikariConnector implements Connector {
         if (dataSource == null) {
             throw new SQLException("Datasource not configured");
         }
-        return dataSource.getConnection();
+        return instrument(dataSource.getConnection());
+    }
+
+    /**
+     * Instruments the given connection, if this connector records metrics or slow queries.
+     * @param connection the connection to instrument.
+     * @return the instrumented connection, or the given connection if this connector does not record anything.
+     */
+    protected @NotNull Connection instrument(@NotNull Connection connection) {
+        if (metrics == null && slowLog == null) {
+            return connection;
+        }
+        return InstrumentedConnection.wrap(connection, metrics, slowLog);
     }
 
     @Override
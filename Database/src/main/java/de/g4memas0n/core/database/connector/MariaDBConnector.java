@@ -18,22 +18,29 @@ public class MariaDBConnector extends MySQLConnector {
     }
 
     @Override
-    public void configure(@NotNull Properties properties) {
-        Class<?> driver;
+    protected @NotNull Class<?> loadDriver() {
         try {
-            driver = Class.forName("org.mariadb.jdbc.Driver");
+            return Class.forName("org.mariadb.jdbc.Driver");
         } catch (ClassNotFoundException ex) {
             logger.warning("Could not find mariadb driver");
             throw new RuntimeException("driver not available", ex);
         }
+    }
 
-        properties.setProperty("driverClassName", driver.getName());
-        properties.remove("dataSourceClassName");
-
-        // Setup jdbcUrl by using the data source properties if not already set
-        if (properties.getProperty("jdbcUrl") == null) {
-            properties.setProperty("jdbcUrl", createUrl(properties));
-        }
-        super.configure(properties);
+    /**
+     * Applies the recommended driver properties of the mariadb driver, unless they are already set.
+     * <p>
+     * The mariadb driver ignores most of the mysql driver properties, so it uses its own bulk, prepared statement
+     * cache and pipelining properties instead.
+     * @param properties the driver or data source properties.
+     */
+    @Override
+    protected void applyDefaults(@NotNull Properties properties) {
+        setDefault(properties, "useBulkStmts", "true");
+        setDefault(properties, "cachePrepStmts", "true");
+        setDefault(properties, "prepStmtCacheSize", "250");
+        setDefault(properties, "useServerPrepStmts", "true");
+        setDefault(properties, "usePipelineAuth", "true");
+        setDefault(properties, "disablePipeline", "false");
     }
 }
@@ -22,46 +22,62 @@ public class MySQLConnector extends HikariConnector {
          * Setup MySQL driver instead of data source as noted in:
          * https://github.com/brettwooldridge/HikariCP/tree/dev
          */
-        Class<?> driver;
+        Class<?> driver = loadDriver();
+        properties.setProperty("driverClassName", driver.getName());
+        properties.remove("dataSourceClassName");
+
+        // Setup jdbcUrl by using the data source properties if not already set
+        if (properties.getProperty("jdbcUrl") == null) {
+            properties.setProperty("jdbcUrl", createUrl(properties));
+        }
+
+        applyDefaults(properties);
+        super.configure(properties);
+    }
+
+    /**
+     * Loads the driver class of the connector.
+     * @return the loaded driver class.
+     * @throws RuntimeException if the driver is not available.
+     */
+    protected @NotNull Class<?> loadDriver() {
         try {
-            driver = Class.forName("com.mysql.cj.jdbc.Driver");
+            return Class.forName("com.mysql.cj.jdbc.Driver");
         } catch (ClassNotFoundException ignored) {
             try {
-                driver = Class.forName("com.mysql.jdbc.Driver");
+                Class<?> driver = Class.forName("com.mysql.jdbc.Driver");
                 logger.warning("Could not find modern mysql driver, falling back to legacy driver");
+                return driver;
             } catch (ClassNotFoundException ex) {
                 logger.warning("Could not find any mysql driver");
                 throw new RuntimeException("driver not available", ex);
             }
         }
+    }
 
-        properties.setProperty("driverClassName", driver.getName());
-        properties.remove("dataSourceClassName");
-
-        // Setup jdbcUrl by using the data source properties if not already set
-        if (properties.getProperty("jdbcUrl") == null) {
-            properties.setProperty("jdbcUrl", createUrl(properties));
-        }
-
+    /**
+     * Applies the recommended driver properties, unless they are already set.
+     * @param properties the driver or data source properties.
+     */
+    protected void applyDefaults(@NotNull Properties properties) {
         /*
          * Setting the recommended data source configuration for mysql as noted in:
          * https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
          */
-        properties.setProperty("dataSource.cachePrepStmts", "true");
-        properties.setProperty("dataSource.prepStmtCacheSize", "250");
-        properties.setProperty("dataSource.prepStmtCacheSqlLimit", "2048");
-        properties.setProperty("dataSource.useServerPrepStmts", "true");
-        properties.setProperty("dataSource.useLocalSessionState", "true");
-        properties.setProperty("dataSource.rewriteBatchedStatements", "true");
-        properties.setProperty("dataSource.cacheResultSetMetadata", "true");
-        properties.setProperty("dataSource.cacheServerConfiguration", "true");
-        properties.setProperty("dataSource.elideSetAutoCommits", "true");
-        properties.setProperty("dataSource.maintainTimeStats", "false");
-        super.configure(properties);
+        setDefault(properties, "cachePrepStmts", "true");
+        setDefault(properties, "prepStmtCacheSize", "250");
+        setDefault(properties, "prepStmtCacheSqlLimit", "2048");
+        setDefault(properties, "useServerPrepStmts", "true");
+        setDefault(properties, "useLocalSessionState", "true");
+        setDefault(properties, "rewriteBatchedStatements", "true");
+        setDefault(properties, "cacheResultSetMetadata", "true");
+        setDefault(properties, "cacheServerConfiguration", "true");
+        setDefault(properties, "elideSetAutoCommits", "true");
+        setDefault(properties, "maintainTimeStats", "false");
     }
 
     public @NotNull String createUrl(@NotNull Properties properties) {
-        if (!properties.contains("serverName") || !properties.contains("databaseName")) {
+        if (!properties.containsKey("serverName") || !properties.containsKey("databaseName")) {
             throw new IllegalArgumentException("serverName and databaseName required");
         }
 
@@ -28,6 +28,13 @@ public class PostgresConnector extends HikariConnector {
 
         properties.setProperty("dataSourceClassName", dataSource.getName());
         properties.remove("driverClassName");
+
+        // Setup the recommended data source properties for postgres if not already set
+        setDefault(properties, "reWriteBatchedInserts", "true");
+        setDefault(properties, "prepareThreshold", "3");
+        setDefault(properties, "preparedStatementCacheQueries", "512");
+        setDefault(properties, "preparedStatementCacheSizeMiB", "8");
+        setDefault(properties, "defaultRowFetchSize", "1000");
         super.configure(properties);
     }
 }
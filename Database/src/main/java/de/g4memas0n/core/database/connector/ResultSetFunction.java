@@ -0,0 +1,22 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A function that maps the result set of a query.
+ * @param <T> the type of the result.
+ */
+@FunctionalInterface
+public interface ResultSetFunction<T> {
+
+    /**
+     * Applies this function to the given result set.
+     * @param result the result set to map.
+     * @return the result of the function.
+     * @throws SQLException if a database access error occurs.
+     */
+    T apply(@NotNull ResultSet result) throws SQLException;
+
+}
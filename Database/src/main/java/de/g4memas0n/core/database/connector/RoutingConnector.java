@@ -0,0 +1,316 @@
+package de.g4memas0n.core.database.connector;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import de.g4memas0n.core.database.metrics.SlowQueryLog;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A database connector that splits reads and writes across a primary and its read replicas.
+ * <p>
+ * Read-only work is sent to the replicas, either through {@link #getReadConnection()} or through a connection of
+ * {@link #getConnection()} that is {@link Connection#setReadOnly(boolean) set read-only} before its first use. All
+ * other connections, and therefore all writes and read-write transactions, are served by the primary. The replicas
+ * are balanced in {@link Balancing#ROUND_ROBIN round-robin} order by default. If a replica is not available, the
+ * read is served by the primary instead.
+ * <p>
+ * On configuration, the primary and every replica are configured with a copy of the given properties. Properties
+ * prefixed with {@code replica.<index>.}, where the index starts with zero, override the shared properties for the
+ * replica with that index, for example {@code replica.0.serverName}. Replica pools are read-only unless configured
+ * otherwise.
+ * @see HikariConnector
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class RoutingConnector implements Connector {
+
+    /**
+     * Logger instance used by the routing connector.
+     */
+    public static Logger logger = Logger.getLogger(RoutingConnector.class.getName());
+
+    private final AtomicInteger counter = new AtomicInteger();
+    private final HikariConnector primary;
+    private final List<HikariConnector> replicas;
+    private volatile Balancing balancing = Balancing.ROUND_ROBIN;
+
+    /**
+     * Constructs a routing connector for the given primary and replicas.
+     * @param primary the connector to the primary database server.
+     * @param replicas the connectors to the read replicas of the primary.
+     */
+    public RoutingConnector(@NotNull HikariConnector primary, @NotNull List<? extends HikariConnector> replicas) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+    }
+
+    /**
+     * Returns the strategy for balancing reads across the replicas.
+     * @return the balancing strategy.
+     */
+    public @NotNull Balancing getBalancing() {
+        return balancing;
+    }
+
+    /**
+     * Sets the strategy for balancing reads across the replicas.
+     * @param balancing the new balancing strategy.
+     */
+    public void setBalancing(@NotNull Balancing balancing) {
+        this.balancing = balancing;
+    }
+
+    @Override
+    public @NotNull String getVendorName() {
+        return primary.getVendorName();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return primary.isRemote();
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        Properties shared = new Properties();
+        properties.forEach((key, value) -> {
+            if (!key.toString().startsWith("replica.")) {
+                shared.put(key, value);
+            }
+        });
+
+        Properties primaryProperties = new Properties();
+        primaryProperties.putAll(shared);
+        primary.configure(primaryProperties);
+
+        for (int index = 0; index < replicas.size(); index++) {
+            String prefix = "replica." + index + ".";
+            Properties replicaProperties = new Properties();
+            replicaProperties.putAll(shared);
+            replicaProperties.setProperty("readOnly", "true");
+
+            properties.forEach((key, value) -> {
+                if (key.toString().startsWith(prefix)) {
+                    replicaProperties.put(key.toString().substring(prefix.length()), value);
+                }
+            });
+
+            replicas.get(index).configure(replicaProperties);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (HikariConnector replica : replicas) {
+            replica.shutdown();
+        }
+        primary.shutdown();
+    }
+
+    @Override
+    public boolean supportsShutdownHooks() {
+        return primary.supportsShutdownHooks();
+    }
+
+    @Override
+    public void addShutdownHook(@NotNull Runnable hook) {
+        primary.addShutdownHook(hook);
+    }
+
+    @Override
+    public @Nullable ConnectorMetrics getMetrics() {
+        return primary.getMetrics();
+    }
+
+    @Override
+    public @Nullable SlowQueryLog getSlowQueryLog() {
+        return primary.getSlowQueryLog();
+    }
+
+    /**
+     * Attempts to establish a connection that is routed on its first use.
+     * <p>
+     * The returned connection does not borrow a pooled connection until it is used. If it is set read-only before,
+     * it is served by a replica, otherwise by the primary.
+     * @return a routing connection to the database.
+     */
+    @Override
+    public @NotNull Connection getConnection() {
+        return (Connection) Proxy.newProxyInstance(RoutingConnector.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new RoutingHandler());
+    }
+
+    /**
+     * Attempts to establish a connection to the primary database server.
+     * @return a connection to the primary.
+     * @throws SQLException if a database access error occurs.
+     */
+    public @NotNull Connection getWriteConnection() throws SQLException {
+        return primary.getConnection();
+    }
+
+    /**
+     * Attempts to establish a read-only connection to one of the replicas.
+     * <p>
+     * If there are no replicas or the selected replica is not available, the connection is established to the
+     * primary and set read-only.
+     * @return a read-only connection to a replica or the primary.
+     * @throws SQLException if a database access error occurs.
+     */
+    public @NotNull Connection getReadConnection() throws SQLException {
+        if (!replicas.isEmpty()) {
+            HikariConnector replica = select();
+
+            try {
+                return replica.getConnection();
+            } catch (SQLException ex) {
+                logger.log(Level.WARNING, "Could not connect to replica, falling back to primary", ex);
+            }
+        }
+
+        Connection connection = primary.getConnection();
+        connection.setReadOnly(true);
+        return connection;
+    }
+
+    private @NotNull HikariConnector select() {
+        if (balancing == Balancing.LEAST_LOADED) {
+            HikariConnector selected = null;
+            int minimum = Integer.MAX_VALUE;
+
+            for (HikariConnector replica : replicas) {
+                int load = getLoad(replica);
+                if (load < minimum) {
+                    selected = replica;
+                    minimum = load;
+                }
+            }
+
+            if (selected != null) {
+                return selected;
+            }
+        }
+
+        return replicas.get(Math.floorMod(counter.getAndIncrement(), replicas.size()));
+    }
+
+    private static int getLoad(@NotNull HikariConnector replica) {
+        try {
+            HikariDataSource dataSource = replica.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = dataSource != null ? dataSource.getHikariPoolMXBean() : null;
+            if (pool != null) {
+                return pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+            }
+        } catch (SQLException ignored) { }
+
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean isWrapperFor(@NotNull Class<?> type) throws SQLException {
+        return type.isInstance(this) || primary.isWrapperFor(type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(@NotNull Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(type);
+    }
+
+    /**
+     * The strategies for balancing reads across replicas.
+     */
+    public enum Balancing {
+
+        /**
+         * Selects the replicas in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Selects the replica with the least active connections and waiting threads.
+         */
+        LEAST_LOADED
+    }
+
+    private final class RoutingHandler implements InvocationHandler {
+
+        private Connection target;
+        private boolean readOnly;
+        private boolean autoCommit = true;
+        private boolean closed;
+
+        @Override
+        public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method,
+                                       @Nullable Object[] args) throws Throwable {
+            if (target == null) {
+                // Defer the routing decision until the connection is actually used
+                switch (method.getName()) {
+                    case "setReadOnly" -> {
+                        readOnly = (boolean) args[0];
+                        return null;
+                    }
+                    case "isReadOnly" -> {
+                        return readOnly;
+                    }
+                    case "setAutoCommit" -> {
+                        autoCommit = (boolean) args[0];
+                        return null;
+                    }
+                    case "getAutoCommit" -> {
+                        return autoCommit;
+                    }
+                    case "close" -> {
+                        closed = true;
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return closed;
+                    }
+                    case "equals" -> {
+                        return proxy == args[0];
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                    case "toString" -> {
+                        return "RoutingConnection[unrouted]";
+                    }
+                    default -> {
+                        if (closed) {
+                            throw new SQLException("Connection is closed");
+                        }
+
+                        target = readOnly ? getReadConnection() : getWriteConnection();
+                        target.setAutoCommit(autoCommit);
+                        if (readOnly) {
+                            target.setReadOnly(true);
+                        }
+                    }
+                }
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package de.g4memas0n.core.database.connector;
 
 import org.jetbrains.annotations.NotNull;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Properties;
+import java.util.logging.Level;
 
 /**
  * A sqlite database connector.
@@ -12,6 +18,8 @@ import java.util.Properties;
 @SuppressWarnings("unused")
 public class SQLiteConnector extends FlatFileConnector {
 
+    private static final int BACKUP_PAGES_PER_STEP = 256;
+
     /**
      * Constructs a sqlite database connector.
      * @param path the path to the database file.
@@ -21,6 +29,12 @@ public class SQLiteConnector extends FlatFileConnector {
         super(path);
     }
 
+    /**
+     * Constructs a sqlite connector to a database that is not stored in a file.
+     * @see FlatFileConnector#FlatFileConnector()
+     */
+    protected SQLiteConnector() { }
+
     @Override
     public @NotNull String getVendorName() {
         return "SQLite";
@@ -28,9 +42,9 @@ public class SQLiteConnector extends FlatFileConnector {
 
     @Override
     public void configure(@NotNull Properties properties) {
-        // Set default encoding to UTF-8
+        // Set default encoding to UTF-8, which the driver only accepts without a hyphen
         if (properties.getProperty("encoding") == null) {
-            properties.setProperty("encoding", "UTF-8");
+            properties.setProperty("encoding", "UTF8");
         }
 
         try {
@@ -43,6 +57,105 @@ public class SQLiteConnector extends FlatFileConnector {
         super.configure(properties);
     }
 
+    /**
+     * Applies the pragma defaults of the given profile.
+     * <p>
+     * All profiles use an in-memory temp store and a busy timeout. The {@link Profile#DURABLE durable} profile uses
+     * a rollback journal with full syncs, the {@link Profile#BALANCED balanced} profile keeps the journal mode of the
+     * database and uses larger page caches and memory maps, with normal syncs if write-ahead logging is enabled
+     * through the {@code journal_mode} property, and the {@link Profile#THROUGHPUT throughput} profile uses
+     * write-ahead logging without syncs and even larger page caches and memory maps.
+     * @param profile the selected tuning profile.
+     * @param properties the driver or data source properties.
+     */
+    @Override
+    protected void applyProfile(@NotNull Profile profile, @NotNull Properties properties) {
+        switch (profile) {
+            case DURABLE -> {
+                setDefault(properties, "journal_mode", "DELETE");
+                setDefault(properties, "synchronous", "FULL");
+            }
+            case BALANCED -> {
+                // Normal syncs are only safe with write-ahead logging, which must be opted in for existing databases
+                String journal = properties.getProperty("journal_mode",
+                        properties.getProperty("dataSource.journal_mode"));
+                if ("WAL".equalsIgnoreCase(journal)) {
+                    setDefault(properties, "synchronous", "NORMAL");
+                }
+                setDefault(properties, "cache_size", "-16384");
+                setDefault(properties, "mmap_size", "67108864");
+            }
+            case THROUGHPUT -> {
+                setDefault(properties, "journal_mode", "WAL");
+                setDefault(properties, "synchronous", "OFF");
+                setDefault(properties, "cache_size", "-65536");
+                setDefault(properties, "mmap_size", "268435456");
+            }
+        }
+
+        setDefault(properties, "temp_store", "MEMORY");
+        setDefault(properties, "busy_timeout", "5000");
+    }
+
+    /**
+     * Writes a backup of the database to the given file.
+     * <p>
+     * In write-ahead logging mode, the backup is written with {@code VACUUM INTO} from a read transaction, which never
+     * blocks writers. Otherwise, the online backup api of sqlite copies the database in steps of a few pages, so
+     * writers can proceed between the steps. As the online backup restarts whenever another connection writes between
+     * two steps, databases with constant writes should use write-ahead logging. If the online backup api is not
+     * available in the driver, the backup falls back to {@code VACUUM INTO}.
+     * @param connection the dedicated connection to the database.
+     * @param target the path to the backup file, which is empty.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    protected void backup(@NotNull Connection connection, @NotNull Path target) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            String journal;
+            try (ResultSet result = statement.executeQuery("PRAGMA journal_mode")) {
+                journal = result.next() ? result.getString(1) : null;
+            }
+
+            // The online backup restarts on every write from another connection, which happens all the time in WAL
+            if (!"wal".equalsIgnoreCase(journal)) {
+                try {
+                    backupOnline(connection, target);
+                    return;
+                } catch (ReflectiveOperationException ex) {
+                    logger.log(Level.FINE, "Online backup not available, falling back to vacuum", ex);
+                }
+            }
+
+            statement.execute("VACUUM INTO " + quote(target));
+        }
+    }
+
+    private static void backupOnline(@NotNull Connection connection,
+                                     @NotNull Path target) throws SQLException, ReflectiveOperationException {
+        // Access the online backup api of the driver reflectively, as the driver is not a compile time dependency
+        Class<?> type = Class.forName("org.sqlite.SQLiteConnection");
+        Class<?> observer = Class.forName("org.sqlite.core.DB$ProgressObserver");
+        Object database = type.getMethod("getDatabase").invoke(connection.unwrap(type));
+        Object result;
+
+        try {
+            result = database.getClass()
+                    .getMethod("backup", String.class, String.class, observer, int.class, int.class, int.class)
+                    .invoke(database, "main", target.toAbsolutePath().toString(), null, 100, 50,
+                            BACKUP_PAGES_PER_STEP);
+        } catch (InvocationTargetException ex) {
+            if (ex.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+
+        if (result instanceof Integer code && code != 0) {
+            throw new SQLException("Online backup failed with result code " + code);
+        }
+    }
+
     @Override
     public @NotNull String createUrl(@NotNull Path path) {
         return "jdbc:sqlite:" + path;
@@ -0,0 +1,85 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.logging.Level;
+
+/**
+ * A sqlite database connector for a named in-memory database.
+ * <p>
+ * All pooled connections share the same in-memory database through the shared cache of sqlite. As sqlite discards
+ * an in-memory database once its last connection is closed, the connector holds an additional connection that keeps
+ * the database alive until the connector is {@link #shutdown() shut down}, regardless of pool evictions. Connectors
+ * with the same name share the same database within the same process.
+ * <p>
+ * Note that the shared cache uses table level locking, so concurrent writes to the same table fail immediately
+ * instead of waiting for the busy timeout. Set the {@code maximumPoolSize} property to one if concurrent writes are
+ * expected.
+ * @see SQLiteConnector
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class SQLiteMemoryConnector extends SQLiteConnector {
+
+    private final String name;
+    private Connection keepAlive;
+
+    /**
+     * Constructs an in-memory sqlite database connector.
+     * @param name the name of the in-memory database.
+     * @see SQLiteConnector
+     */
+    public SQLiteMemoryConnector(@NotNull String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        super.configure(properties);
+
+        try {
+            keepAlive = DriverManager.getConnection(properties.getProperty("jdbcUrl"));
+        } catch (SQLException ex) {
+            super.shutdown();
+            throw new RuntimeException("database not available", ex);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+
+        if (keepAlive != null) {
+            try {
+                keepAlive.close();
+            } catch (SQLException ex) {
+                logger.log(Level.WARNING, "Could not close in-memory database", ex);
+            }
+            keepAlive = null;
+        }
+    }
+
+    /**
+     * Applies the pragma defaults of the given profile.
+     * <p>
+     * In addition to the defaults of the sqlite connector, the journal is kept in memory, as in-memory databases do
+     * not support write-ahead logging.
+     * @param profile the selected tuning profile.
+     * @param properties the driver or data source properties.
+     */
+    @Override
+    protected void applyProfile(@NotNull Profile profile, @NotNull Properties properties) {
+        setDefault(properties, "journal_mode", "MEMORY");
+        super.applyProfile(profile, properties);
+    }
+
+    @Override
+    protected @NotNull String createUrl() {
+        return "jdbc:sqlite:file:" + URLEncoder.encode(name, StandardCharsets.UTF_8) + "?mode=memory&cache=shared";
+    }
+}
@@ -0,0 +1,163 @@
+package de.g4memas0n.core.database.connector;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.jetbrains.annotations.NotNull;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A sqlite database connector with a single writer and multiple readers.
+ * <p>
+ * The database is opened in write-ahead logging mode, in which readers never block the writer and the writer never
+ * blocks the readers. The connections returned by {@link #getReadConnection()} are read-only and served from a small
+ * pool, while all writes go through one dedicated writer connection, either by {@link #submit(ConnectionFunction)
+ * submitting} them to the write queue or by {@link #getWriteConnection() acquiring} the writer connection directly.
+ * As there is only one writer, writes never fail with {@code SQLITE_BUSY}.
+ * <p>
+ * Connections returned by {@link #getConnection()} must be writable, so they are served by the writer connection as
+ * well. Callers that only read should use {@link #getReadConnection()} instead, so they do not wait for writes.
+ * @see SQLiteConnector
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class SQLiteWALConnector extends SQLiteConnector {
+
+    private HikariDataSource writer;
+    private ExecutorService executor;
+
+    /**
+     * Constructs a single writer sqlite database connector.
+     * @param path the path to the database file.
+     * @see SQLiteConnector
+     */
+    public SQLiteWALConnector(@NotNull Path path) {
+        super(path);
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        copy.remove("dataSource.journal_mode");
+        copy.setProperty("journal_mode", "WAL");
+
+        // Configure the read-only pool first, the properties will be completed by the super classes
+        copy.setProperty("connectionInitSql", "PRAGMA query_only = true");
+        super.configure(copy);
+
+        HikariConfig config = createConfig(copy);
+        config.setConnectionInitSql(null);
+        config.setMaximumPoolSize(1);
+        config.setMinimumIdle(1);
+        writer = new HikariDataSource(config);
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SQLite Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        runShutdownHooks();
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                    logger.warning("Timed out while waiting for queued sqlite writes");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (writer != null) {
+            writer.close();
+        }
+        super.shutdown();
+    }
+
+    /**
+     * Attempts to acquire the writer connection to the database.
+     * <p>
+     * This method behaves like {@link #getWriteConnection()}.
+     * @return the writer connection to the database.
+     * @throws SQLException if a database access error occurs.
+     */
+    @Override
+    public @NotNull Connection getConnection() throws SQLException {
+        return getWriteConnection();
+    }
+
+    /**
+     * Attempts to establish a read-only connection to the database.
+     * <p>
+     * Read-only connections are served from a separate pool and never wait for the writer connection.
+     * @return a read-only connection to the database.
+     * @throws SQLException if a database access error occurs.
+     */
+    public @NotNull Connection getReadConnection() throws SQLException {
+        return super.getConnection();
+    }
+
+    /**
+     * Attempts to acquire the writer connection to the database.
+     * <p>
+     * This method blocks until the writer connection is not used anymore by queued writes or other callers. The
+     * connection must be closed after use to release it for other writes.
+     * @return the writer connection to the database.
+     * @throws SQLException if a database access error occurs.
+     */
+    public @NotNull Connection getWriteConnection() throws SQLException {
+        if (writer == null) {
+            throw new SQLException("Datasource not configured");
+        }
+        return instrument(writer.getConnection());
+    }
+
+    /**
+     * Submits the given function to the write queue.
+     * <p>
+     * The function is applied to the writer connection inside a transaction, which is committed if the function
+     * completes normally and rolled back otherwise.
+     * @param function the function to apply to the writer connection.
+     * @param <T> the type of the result.
+     * @return a future that completes with the result of the function.
+     */
+    public <T> @NotNull CompletableFuture<T> submit(@NotNull ConnectionFunction<T> function) {
+        if (executor == null) {
+            return CompletableFuture.failedFuture(new SQLException("Datasource not configured"));
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = getWriteConnection()) {
+                connection.setAutoCommit(false);
+
+                try {
+                    T result = function.apply(connection);
+                    connection.commit();
+                    connection.setAutoCommit(true);
+                    return result;
+                } catch (Throwable ex) {
+                    // Auto-commit stays disabled, as enabling it would commit a transaction that was not rolled back
+                    try {
+                        connection.rollback();
+                    } catch (SQLException suppressed) {
+                        ex.addSuppressed(suppressed);
+                    }
+                    throw ex;
+                }
+            } catch (SQLException ex) {
+                throw new CompletionException(ex);
+            }
+        }, executor);
+    }
+}
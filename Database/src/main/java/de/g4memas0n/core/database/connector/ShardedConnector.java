@@ -0,0 +1,490 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A database connector that distributes rows across multiple databases by a shard key.
+ * <p>
+ * Each key is routed by consistent hashing to one of the named shards, so adding or removing a shard only moves the
+ * keys of about one shard instead of reshuffling all keys. Every shard is placed on the hash ring with a number of
+ * virtual nodes, which evens out the distribution. As the placement depends on the shard names, the names must stay
+ * the same across restarts.
+ * <p>
+ * Keys are hashed by a normalized string form, so that the same key routes to the same shard regardless of the java
+ * type that a driver returns for it: integral numbers and decimals without fraction are hashed by their plain decimal
+ * form, 16 byte arrays by the string form of the uuid they encode, and all other keys by their string
+ * representation, like the string form of an uuid.
+ * <p>
+ * Connections should be obtained through {@link #getConnection(Object)}, or through the connector of a key's shard
+ * returned by {@link #getConnector(Object)}, which can be passed to any helper that expects a connector. Connections
+ * without shard key are only served by the {@link #setDefaultShard(String) default shard}, if one is set. After
+ * adding a shard, the rows of a table can be moved to their new shards with {@link #rebalance(String, String)}.
+ * <p>
+ * On configuration, every shard is configured with a copy of the given properties. Properties prefixed with
+ * {@code shard.<name>.} override the shared properties for the shard with that name, for example
+ * {@code shard.eu.serverName}.
+ * @see Connector
+ */
+@SuppressWarnings("unused")
+public class ShardedConnector implements Connector {
+
+    /**
+     * Logger instance used by the sharded connector.
+     */
+    public static Logger logger = Logger.getLogger(ShardedConnector.class.getName());
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final List<Runnable> shutdownHooks = new CopyOnWriteArrayList<>();
+    private final Map<String, Connector> shards;
+    private final int virtualNodes;
+    private volatile NavigableMap<Long, String> ring;
+    private volatile String defaultShard;
+
+    /**
+     * Constructs a sharded connector with 160 virtual nodes per shard.
+     * @param shards the connectors of the shards by their names.
+     */
+    public ShardedConnector(@NotNull Map<String, ? extends Connector> shards) {
+        this(shards, 160);
+    }
+
+    /**
+     * Constructs a sharded connector with the given count of virtual nodes per shard.
+     * @param shards the connectors of the shards by their names.
+     * @param virtualNodes the count of virtual nodes per shard.
+     * @throws IllegalArgumentException if the shards are empty or the count of virtual nodes is not positive.
+     */
+    public ShardedConnector(@NotNull Map<String, ? extends Connector> shards, int virtualNodes) {
+        if (shards.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("shards must not be empty and virtual nodes must be positive");
+        }
+
+        this.shards = Collections.synchronizedMap(new LinkedHashMap<>(shards));
+        this.virtualNodes = virtualNodes;
+        this.ring = createRing();
+    }
+
+    /**
+     * Returns the connectors of the shards by their names.
+     * @return an unmodifiable copy of the shards.
+     */
+    public @NotNull Map<String, Connector> getShards() {
+        synchronized (shards) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(shards));
+        }
+    }
+
+    /**
+     * Adds a shard to the hash ring.
+     * <p>
+     * The given connector must already be configured. Keys that are routed to the new shard are not moved
+     * automatically, see {@link #rebalance(String, String)}.
+     * @param name the name of the new shard.
+     * @param connector the connector of the new shard.
+     * @throws IllegalArgumentException if a shard with the given name already exists.
+     */
+    public void addShard(@NotNull String name, @NotNull Connector connector) {
+        synchronized (shards) {
+            if (shards.putIfAbsent(name, connector) != null) {
+                throw new IllegalArgumentException("duplicate shard " + name);
+            }
+
+            ring = createRing();
+        }
+    }
+
+    /**
+     * Returns the name of the shard that serves connections without shard key.
+     * @return the name of the default shard, or null if there is no default shard.
+     */
+    public @Nullable String getDefaultShard() {
+        return defaultShard;
+    }
+
+    /**
+     * Sets the shard that serves connections without shard key, for example for tables that are not sharded.
+     * @param name the name of the new default shard, or null to reject connections without shard key.
+     * @throws IllegalArgumentException if there is no shard with the given name.
+     */
+    public void setDefaultShard(@Nullable String name) {
+        if (name != null && !shards.containsKey(name)) {
+            throw new IllegalArgumentException("unknown shard " + name);
+        }
+
+        this.defaultShard = name;
+    }
+
+    /**
+     * Returns the name of the shard that the given key is routed to.
+     * @param key the shard key.
+     * @return the name of the shard.
+     */
+    public @NotNull String getShard(@NotNull Object key) {
+        NavigableMap<Long, String> ring = this.ring;
+        Map.Entry<Long, String> node = ring.ceilingEntry(hash(normalize(key)));
+        return (node != null ? node : ring.firstEntry()).getValue();
+    }
+
+    /**
+     * Returns the connector of the shard that the given key is routed to.
+     * @param key the shard key.
+     * @return the connector of the shard of the key.
+     */
+    public @NotNull Connector getConnector(@NotNull Object key) {
+        return shards.get(getShard(key));
+    }
+
+    /**
+     * Attempts to establish a connection to the shard that the given key is routed to.
+     * @param key the shard key.
+     * @return a connection to the shard of the key.
+     * @throws SQLException if a database access error occurs.
+     */
+    public @NotNull Connection getConnection(@NotNull Object key) throws SQLException {
+        return getConnector(key).getConnection();
+    }
+
+    /**
+     * Attempts to establish a connection to the {@link #setDefaultShard(String) default shard}.
+     * @return a connection to the default shard.
+     * @throws SQLFeatureNotSupportedException if there is no default shard.
+     * @throws SQLException if a database access error occurs.
+     * @see #getConnection(Object)
+     */
+    @Override
+    public @NotNull Connection getConnection() throws SQLException {
+        String name = defaultShard;
+        if (name == null) {
+            throw new SQLFeatureNotSupportedException("Sharded connections require a shard key or default shard");
+        }
+
+        return shards.get(name).getConnection();
+    }
+
+    /**
+     * Moves all rows of the given table to the shards that their keys are routed to.
+     * <p>
+     * The rows are copied in batches to their new shard, each inside one transaction that first deletes the rows of
+     * the copied keys that a previous, interrupted rebalance left behind on the new shard. After all rows were copied,
+     * they are deleted from the old shard in batches. So a failure never loses rows, and an interrupted rebalance can
+     * simply be run again. As rows of a moved key that are already on its new shard are replaced, no rows must be
+     * written for the moved keys between adding the shard and rebalancing, and writes to the table should be paused
+     * while rebalancing. The key column must hold the shard
+     * key, which is normalized like any other key, and the table must exist on all shards.
+     * @param table the name of the table to rebalance.
+     * @param keyColumn the name of the column holding the shard key.
+     * @return the count of moved rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long rebalance(@NotNull String table, @NotNull String keyColumn) throws SQLException {
+        long moved = 0;
+
+        for (Map.Entry<String, Connector> shard : getShards().entrySet()) {
+            moved += rebalance(shard.getKey(), shard.getValue(), table, keyColumn);
+        }
+
+        return moved;
+    }
+
+    private long rebalance(@NotNull String name, @NotNull Connector source, @NotNull String table,
+                           @NotNull String keyColumn) throws SQLException {
+        Map<String, List<Object[]>> pending = new HashMap<>();
+        Map<String, Object> keys = new LinkedHashMap<>();
+        String insert;
+        String delete = "DELETE FROM " + table + " WHERE " + keyColumn + " = ?";
+        int keyIndex;
+        long moved = 0;
+
+        Connection connection = source.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.setFetchSize(BATCH_SIZE);
+
+            try (ResultSet result = statement.executeQuery("SELECT * FROM " + table)) {
+                ResultSetMetaData meta = result.getMetaData();
+                String[] columns = new String[meta.getColumnCount()];
+                for (int index = 0; index < columns.length; index++) {
+                    columns[index] = meta.getColumnName(index + 1);
+                }
+
+                insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                        + "?, ".repeat(columns.length - 1) + "?)";
+                keyIndex = result.findColumn(keyColumn) - 1;
+
+                while (result.next()) {
+                    Object[] row = new Object[columns.length];
+                    for (int index = 0; index < row.length; index++) {
+                        row[index] = result.getObject(index + 1);
+                    }
+
+                    String owner = row[keyIndex] != null ? getShard(row[keyIndex]) : name;
+                    if (owner.equals(name)) {
+                        continue;
+                    }
+
+                    List<Object[]> rows = pending.computeIfAbsent(owner, shard -> new ArrayList<>());
+                    rows.add(row);
+
+                    if (rows.size() >= BATCH_SIZE) {
+                        moved += copy(owner, insert, delete, rows, keyIndex, keys);
+                    }
+                }
+            }
+        } finally {
+            source.closeConnection(connection);
+        }
+
+        for (Map.Entry<String, List<Object[]>> rows : pending.entrySet()) {
+            moved += copy(rows.getKey(), insert, delete, rows.getValue(), keyIndex, keys);
+        }
+
+        // Delete the copied rows after the scan, as some databases lock the table while it is read
+        if (!keys.isEmpty()) {
+            delete(source, delete, new ArrayList<>(keys.values()));
+            logger.info("Moved " + moved + " rows of table " + table + " away from shard " + name);
+        }
+
+        return moved;
+    }
+
+    private int copy(@NotNull String shard, @NotNull String insert, @NotNull String delete,
+                     @NotNull List<Object[]> rows, int keyIndex, @NotNull Map<String, Object> keys)
+            throws SQLException {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        // Keys copied with earlier batches of this rebalance must not be deleted again, only left over keys
+        Set<String> copied = new HashSet<>();
+        List<Object> leftovers = new ArrayList<>();
+        for (Object[] row : rows) {
+            String key = normalize(row[keyIndex]);
+            if (!keys.containsKey(key) && copied.add(key)) {
+                leftovers.add(row[keyIndex]);
+            }
+        }
+
+        Connector target = shards.get(shard);
+        Connection connection = target.getConnection();
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement cleanup = connection.prepareStatement(delete);
+                 PreparedStatement statement = connection.prepareStatement(insert)) {
+                for (Object key : leftovers) {
+                    cleanup.setObject(1, key);
+                    cleanup.addBatch();
+                }
+                cleanup.executeBatch();
+
+                for (Object[] row : rows) {
+                    for (int index = 0; index < row.length; index++) {
+                        statement.setObject(index + 1, row[index]);
+                    }
+                    statement.addBatch();
+                }
+
+                statement.executeBatch();
+                connection.commit();
+                connection.setAutoCommit(true);
+            } catch (Throwable ex) {
+                try {
+                    connection.rollback();
+                } catch (SQLException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+        } finally {
+            target.closeConnection(connection);
+        }
+
+        for (Object[] row : rows) {
+            keys.putIfAbsent(normalize(row[keyIndex]), row[keyIndex]);
+        }
+
+        int count = rows.size();
+        rows.clear();
+        return count;
+    }
+
+    private static void delete(@NotNull Connector source, @NotNull String delete,
+                               @NotNull List<Object> keys) throws SQLException {
+        Connection connection = source.getConnection();
+
+        try {
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(delete)) {
+                for (int index = 0; index < keys.size(); index++) {
+                    statement.setObject(1, keys.get(index));
+                    statement.addBatch();
+
+                    if ((index + 1) % BATCH_SIZE == 0 || index + 1 == keys.size()) {
+                        // Commit each batch, so an interrupted rebalance only leaves copies of uncommitted batches
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+
+                connection.setAutoCommit(true);
+            } catch (Throwable ex) {
+                try {
+                    connection.rollback();
+                } catch (SQLException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+        } finally {
+            source.closeConnection(connection);
+        }
+    }
+
+    private @NotNull NavigableMap<Long, String> createRing() {
+        NavigableMap<Long, String> ring = new TreeMap<>();
+
+        for (String name : shards.keySet()) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(hash(name + "#" + node), name);
+            }
+        }
+
+        return Collections.unmodifiableNavigableMap(ring);
+    }
+
+    /**
+     * Returns the normalized string form of the given shard key, which is hashed to route the key.
+     * @param key the shard key.
+     * @return the normalized key.
+     */
+    static @NotNull String normalize(@NotNull Object key) {
+        if (key instanceof Byte || key instanceof Short || key instanceof Integer || key instanceof Long) {
+            return Long.toString(((Number) key).longValue());
+        } else if (key instanceof BigDecimal decimal && decimal.signum() != 0) {
+            return decimal.stripTrailingZeros().toPlainString();
+        } else if (key instanceof BigDecimal) {
+            return "0";
+        } else if (key instanceof byte[] bytes && bytes.length == 16) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong()).toString();
+        }
+
+        return key.toString();
+    }
+
+    private static long hash(@NotNull String value) {
+        // FNV-1a over the utf-8 bytes, followed by the murmur3 finalizer, which spreads similar keys over the ring
+        long hash = 0xcbf29ce484222325L;
+        for (byte part : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (part & 0xff)) * 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    @Override
+    public @NotNull String getVendorName() {
+        return shards.values().iterator().next().getVendorName();
+    }
+
+    @Override
+    public boolean isRemote() {
+        return shards.values().iterator().next().isRemote();
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) {
+        for (Map.Entry<String, Connector> shard : getShards().entrySet()) {
+            String prefix = "shard." + shard.getKey() + ".";
+            Properties shardProperties = new Properties();
+
+            properties.forEach((key, value) -> {
+                if (!key.toString().startsWith("shard.")) {
+                    shardProperties.put(key, value);
+                }
+            });
+            properties.forEach((key, value) -> {
+                if (key.toString().startsWith(prefix)) {
+                    shardProperties.put(key.toString().substring(prefix.length()), value);
+                }
+            });
+
+            shard.getValue().configure(shardProperties);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        for (Runnable hook : shutdownHooks) {
+            if (shutdownHooks.remove(hook)) {
+                try {
+                    hook.run();
+                } catch (RuntimeException ex) {
+                    logger.log(Level.WARNING, "Could not run shutdown hook", ex);
+                }
+            }
+        }
+
+        for (Connector shard : getShards().values()) {
+            shard.shutdown();
+        }
+    }
+
+    @Override
+    public boolean supportsShutdownHooks() {
+        return true;
+    }
+
+    /**
+     * Registers a hook that runs once when the sharded connector shuts down, before any shard is shut down.
+     * @param hook the shutdown hook to register.
+     */
+    @Override
+    public void addShutdownHook(@NotNull Runnable hook) {
+        shutdownHooks.add(hook);
+    }
+
+    @Override
+    public boolean isWrapperFor(@NotNull Class<?> type) {
+        return type.isInstance(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(@NotNull Class<T> type) throws SQLException {
+        if (type.isInstance(this)) {
+            return (T) this;
+        }
+        throw new SQLException("Cannot unwrap to " + type);
+    }
+}
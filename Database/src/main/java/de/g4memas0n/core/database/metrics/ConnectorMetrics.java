@@ -0,0 +1,304 @@
+package de.g4memas0n.core.database.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A metrics class that records the connection and statement latencies of a connector.
+ * <p>
+ * The metrics are wired into the connection pools as hikari metrics tracker factory, which records the time waited
+ * for connections and the time connections were held. The execution time of statements is recorded by the
+ * {@link InstrumentedConnection instrumented connections} of the connector. All latencies are recorded into
+ * lock-free {@link LatencyHistogram histograms}, forwarded to the registered {@link MetricsListener listeners} and
+ * can be exposed via JMX by {@link #register(String) registering} the metrics.
+ */
+@SuppressWarnings("unused")
+public final class ConnectorMetrics implements MetricsTrackerFactory, ConnectorMetricsMXBean {
+
+    /**
+     * Logger instance used by the connector metrics.
+     */
+    public static Logger logger = Logger.getLogger(ConnectorMetrics.class.getName());
+
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+    private final LatencyHistogram usageTimes = new LatencyHistogram();
+    private final LatencyHistogram statementTimes = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder retryFailures = new LongAdder();
+    private final List<PoolStats> pools = new CopyOnWriteArrayList<>();
+    private final List<MetricsListener> listeners = new CopyOnWriteArrayList<>();
+    private ObjectName name;
+
+    @Override
+    public @NotNull IMetricsTracker create(@NotNull String poolName, @NotNull PoolStats poolStats) {
+        pools.add(poolStats);
+
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long nanos) {
+                acquireTimes.record(nanos);
+                for (MetricsListener listener : listeners) {
+                    listener.onConnectionAcquired(nanos);
+                }
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long millis) {
+                long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+                usageTimes.record(nanos);
+                for (MetricsListener listener : listeners) {
+                    listener.onConnectionReleased(nanos);
+                }
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+                for (MetricsListener listener : listeners) {
+                    listener.onConnectionTimeout();
+                }
+            }
+
+            @Override
+            public void close() {
+                pools.remove(poolStats);
+            }
+        };
+    }
+
+    /**
+     * Records the execution time of a statement.
+     * @param query the executed query, or null if the query is unknown.
+     * @param nanos the execution time of the statement, in nanoseconds.
+     */
+    public void recordStatement(@Nullable String query, long nanos) {
+        statementTimes.record(nanos);
+        for (MetricsListener listener : listeners) {
+            listener.onStatementExecuted(query, nanos);
+        }
+    }
+
+    /**
+     * Records the retry of a transaction that failed with a transient error.
+     * @param attempt the count of previous attempts of the transaction.
+     */
+    public void recordRetry(int attempt) {
+        retries.increment();
+        for (MetricsListener listener : listeners) {
+            listener.onTransactionRetried(attempt);
+        }
+    }
+
+    /**
+     * Records a transaction that still failed with a transient error after all retries.
+     */
+    public void recordRetryFailure() {
+        retryFailures.increment();
+    }
+
+    /**
+     * Adds a listener that receives all further measurements.
+     * @param listener the listener to add.
+     */
+    public void addListener(@NotNull MetricsListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously added listener.
+     * @param listener the listener to remove.
+     */
+    public void removeListener(@NotNull MetricsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Returns the histogram of the times waited for connections.
+     * @return the connection acquire histogram.
+     */
+    public @NotNull LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    /**
+     * Returns the histogram of the times connections were held.
+     * @return the connection usage histogram.
+     */
+    public @NotNull LatencyHistogram getUsageTimes() {
+        return usageTimes;
+    }
+
+    /**
+     * Returns the histogram of the statement execution times.
+     * @return the statement execution histogram.
+     */
+    public @NotNull LatencyHistogram getStatementTimes() {
+        return statementTimes;
+    }
+
+    /**
+     * Registers these metrics as MXBean in the platform MBean server.
+     * @param poolName the name of the pool to register the metrics for.
+     */
+    public synchronized void register(@NotNull String poolName) {
+        if (name != null) {
+            return;
+        }
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("de.g4memas0n.core.database:type=ConnectorMetrics,name="
+                    + ObjectName.quote(poolName));
+
+            server.registerMBean(this, name);
+            this.name = name;
+        } catch (JMException ex) {
+            logger.log(Level.WARNING, "Could not register metrics for pool " + poolName, ex);
+        }
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBean server, if they were registered.
+     */
+    public synchronized void unregister() {
+        if (name == null) {
+            return;
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException ex) {
+            logger.log(Level.WARNING, "Could not unregister metrics " + name, ex);
+        }
+
+        name = null;
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return sum(PoolStats::getActiveConnections);
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return sum(PoolStats::getIdleConnections);
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return sum(PoolStats::getTotalConnections);
+    }
+
+    @Override
+    public int getPendingThreads() {
+        return sum(PoolStats::getPendingThreads);
+    }
+
+    @Override
+    public long getConnectionTimeouts() {
+        return timeouts.sum();
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireTimes.getCount();
+    }
+
+    @Override
+    public double getAcquireTimeMean() {
+        return acquireTimes.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getAcquireTime99thPercentile() {
+        return acquireTimes.getPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getAcquireTimeMax() {
+        return acquireTimes.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getUsageCount() {
+        return usageTimes.getCount();
+    }
+
+    @Override
+    public double getUsageTimeMean() {
+        return usageTimes.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getUsageTime99thPercentile() {
+        return usageTimes.getPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getUsageTimeMax() {
+        return usageTimes.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getStatementCount() {
+        return statementTimes.getCount();
+    }
+
+    @Override
+    public double getStatementTimeMean() {
+        return statementTimes.getMean(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getStatementTime99thPercentile() {
+        return statementTimes.getPercentile(99, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public double getStatementTimeMax() {
+        return statementTimes.getMax(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getTransactionRetries() {
+        return retries.sum();
+    }
+
+    @Override
+    public long getTransactionRetryFailures() {
+        return retryFailures.sum();
+    }
+
+    @Override
+    public void reset() {
+        acquireTimes.reset();
+        usageTimes.reset();
+        statementTimes.reset();
+        timeouts.reset();
+        retries.reset();
+        retryFailures.reset();
+    }
+
+    private int sum(@NotNull ToIntFunction<PoolStats> getter) {
+        int sum = 0;
+        for (PoolStats pool : pools) {
+            sum += getter.applyAsInt(pool);
+        }
+        return sum;
+    }
+}
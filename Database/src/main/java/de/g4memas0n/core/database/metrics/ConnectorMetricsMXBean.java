@@ -0,0 +1,130 @@
+package de.g4memas0n.core.database.metrics;
+
+/**
+ * The management interface of {@link ConnectorMetrics}, exposed via JMX.
+ * <p>
+ * All times are given in milliseconds, while the latencies are recorded in nanoseconds. Counts and latencies are
+ * recorded since the last {@link #reset() reset}, whereas the connection counts reflect the current pool state.
+ */
+@SuppressWarnings("unused")
+public interface ConnectorMetricsMXBean {
+
+    /**
+     * Returns the count of connections currently borrowed from the pools.
+     * @return the active connection count.
+     */
+    int getActiveConnections();
+
+    /**
+     * Returns the count of connections currently idle in the pools.
+     * @return the idle connection count.
+     */
+    int getIdleConnections();
+
+    /**
+     * Returns the count of connections currently held by the pools, both active and idle.
+     * @return the total connection count.
+     */
+    int getTotalConnections();
+
+    /**
+     * Returns the count of threads currently waiting for a connection from the pools.
+     * @return the pending thread count.
+     */
+    int getPendingThreads();
+
+    /**
+     * Returns the count of connection requests that timed out since the last reset.
+     * @return the connection timeout count.
+     */
+    long getConnectionTimeouts();
+
+    /**
+     * Returns the count of connections acquired from the pools since the last reset.
+     * @return the connection acquire count.
+     */
+    long getAcquireCount();
+
+    /**
+     * Returns the mean time waited for a connection, in milliseconds.
+     * @return the mean acquire time, or zero if nothing was recorded.
+     */
+    double getAcquireTimeMean();
+
+    /**
+     * Returns the 99th percentile of the times waited for a connection, in milliseconds.
+     * @return the approximate 99th percentile acquire time, or zero if nothing was recorded.
+     */
+    double getAcquireTime99thPercentile();
+
+    /**
+     * Returns the longest time waited for a connection, in milliseconds.
+     * @return the maximum acquire time, or zero if nothing was recorded.
+     */
+    double getAcquireTimeMax();
+
+    /**
+     * Returns the count of connections returned to the pools since the last reset.
+     * @return the connection usage count.
+     */
+    long getUsageCount();
+
+    /**
+     * Returns the mean time a connection was held before it was returned, in milliseconds.
+     * @return the mean usage time, or zero if nothing was recorded.
+     */
+    double getUsageTimeMean();
+
+    /**
+     * Returns the 99th percentile of the times connections were held, in milliseconds.
+     * @return the approximate 99th percentile usage time, or zero if nothing was recorded.
+     */
+    double getUsageTime99thPercentile();
+
+    /**
+     * Returns the longest time a connection was held, in milliseconds.
+     * @return the maximum usage time, or zero if nothing was recorded.
+     */
+    double getUsageTimeMax();
+
+    /**
+     * Returns the count of executed statements since the last reset.
+     * @return the statement count.
+     */
+    long getStatementCount();
+
+    /**
+     * Returns the mean execution time of the statements, in milliseconds.
+     * @return the mean statement time, or zero if nothing was recorded.
+     */
+    double getStatementTimeMean();
+
+    /**
+     * Returns the 99th percentile of the statement execution times, in milliseconds.
+     * @return the approximate 99th percentile statement time, or zero if nothing was recorded.
+     */
+    double getStatementTime99thPercentile();
+
+    /**
+     * Returns the longest execution time of a statement, in milliseconds.
+     * @return the maximum statement time, or zero if nothing was recorded.
+     */
+    double getStatementTimeMax();
+
+    /**
+     * Returns the count of transactions that were retried after a transient error since the last reset.
+     * @return the transaction retry count.
+     */
+    long getTransactionRetries();
+
+    /**
+     * Returns the count of transactions that still failed after all retries since the last reset.
+     * @return the transaction retry failure count.
+     */
+    long getTransactionRetryFailures();
+
+    /**
+     * Resets all recorded latencies, the connection timeout count and the transaction retry counts.
+     */
+    void reset();
+}
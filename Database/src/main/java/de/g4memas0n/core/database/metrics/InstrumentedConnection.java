@@ -0,0 +1,168 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A utility class for instrumenting connections, so that the execution time of their statements is recorded.
+ * <p>
+ * The instrumented connection is a dynamic proxy that wraps all statements it creates into proxies as well, which
+ * time every {@code execute} call. If a slow query log is given, the bind parameters of prepared statements are
+ * captured as well, so that slow statements can be logged with their parameters. Batches are logged with their size
+ * instead, as their parameters differ for every row. All other calls are forwarded
+ * unchanged, including {@code unwrap} calls, so vendor specific interfaces of the delegate remain accessible.
+ */
+public final class InstrumentedConnection {
+
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private InstrumentedConnection() { }
+
+    /**
+     * Wraps the given connection, so that its statement execution times are recorded into the given metrics.
+     * @param connection the connection to instrument.
+     * @param metrics the metrics to record the statement execution times into.
+     * @return the instrumented connection.
+     */
+    public static @NotNull Connection wrap(@NotNull Connection connection, @NotNull ConnectorMetrics metrics) {
+        return wrap(connection, metrics, null);
+    }
+
+    /**
+     * Wraps the given connection, so that its statement execution times are recorded into the given metrics and its
+     * slow statements into the given slow query log.
+     * @param connection the connection to instrument.
+     * @param metrics the metrics to record the statement execution times into, or null to not record them.
+     * @param slowLog the log to record the slow statements into, or null to not record them.
+     * @return the instrumented connection.
+     */
+    public static @NotNull Connection wrap(@NotNull Connection connection, @Nullable ConnectorMetrics metrics,
+                                           @Nullable SlowQueryLog slowLog) {
+        return (Connection) Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, new ConnectionHandler(connection, metrics, slowLog));
+    }
+
+    private static @Nullable Object invoke(@NotNull Object target, @NotNull Method method,
+                                           @Nullable Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private record ConnectionHandler(@NotNull Connection delegate, @Nullable ConnectorMetrics metrics,
+                                     @Nullable SlowQueryLog slowLog) implements InvocationHandler {
+
+        @Override
+        public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method,
+                                       @Nullable Object[] args) throws Throwable {
+            Object result = InstrumentedConnection.invoke(delegate, method, args);
+
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                // Prepared statements and callable statements are created with their query as first argument
+                String query = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+
+                return Proxy.newProxyInstance(InstrumentedConnection.class.getClassLoader(),
+                        new Class<?>[] {method.getReturnType()}, new StatementHandler(statement, query, this));
+            }
+
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement delegate;
+        private final String query;
+        private final ConnectionHandler connection;
+        private Object[] parameters = NO_PARAMETERS;
+        private int count;
+        private int batch;
+
+        private StatementHandler(@NotNull Statement delegate, @Nullable String query,
+                                 @NotNull ConnectionHandler connection) {
+            this.delegate = delegate;
+            this.query = query;
+            this.connection = connection;
+        }
+
+        @Override
+        public @Nullable Object invoke(@NotNull Object proxy, @NotNull Method method,
+                                       @Nullable Object[] args) throws Throwable {
+            String name = method.getName();
+
+            if (!name.startsWith("execute")) {
+                if (connection.slowLog() != null) {
+                    capture(name, args);
+                }
+
+                return InstrumentedConnection.invoke(delegate, method, args);
+            }
+
+            // Plain statements are executed with their query as first argument
+            boolean prepared = args == null || args.length == 0 || !(args[0] instanceof String);
+            boolean batched = name.equals("executeBatch") || name.equals("executeLargeBatch");
+            String query = prepared ? this.query : (String) args[0];
+            int batch = this.batch;
+            long start = System.nanoTime();
+
+            try {
+                return InstrumentedConnection.invoke(delegate, method, args);
+            } finally {
+                long nanos = System.nanoTime() - start;
+
+                if (batched) {
+                    // Executing a batch clears it, regardless of whether the execution succeeded
+                    this.batch = 0;
+                }
+                if (connection.metrics() != null) {
+                    connection.metrics().recordStatement(query, nanos);
+                }
+                if (connection.slowLog() != null && nanos >= connection.slowLog().getThreshold()) {
+                    if (batched) {
+                        connection.slowLog().recordBatch(query, batch, nanos);
+                    } else {
+                        connection.slowLog().record(query, prepared ? getParameters() : Collections.emptyList(),
+                                nanos);
+                    }
+                }
+            }
+        }
+
+        private void capture(@NotNull String name, @Nullable Object[] args) {
+            if (name.equals("addBatch")) {
+                batch++;
+            } else if (name.equals("clearBatch")) {
+                batch = 0;
+            } else if (query == null) {
+                return;
+            } else if (name.equals("clearParameters")) {
+                parameters = NO_PARAMETERS;
+                count = 0;
+            } else if (name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer index && index > 0) {
+                if (index > parameters.length) {
+                    parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+                }
+
+                parameters[index - 1] = name.equals("setNull") ? null : args[1];
+                count = Math.max(count, index);
+            }
+        }
+
+        private @NotNull List<Object> getParameters() {
+            return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(parameters).subList(0, count)));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package de.g4memas0n.core.database.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram class for recording latencies in nanoseconds.
+ * <p>
+ * Like HdrHistogram, values are counted in log-linear buckets: each power of two is divided into thirty-two linear
+ * sub-buckets, so percentiles are accurate to about three percent of the value over the whole range of a long, while
+ * the histogram occupies about fifteen kilobytes. Recording a value only increments a few atomic counters and never
+ * blocks, so it is safe to record from any number of threads.
+ */
+@SuppressWarnings("unused")
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_COUNT = SUB_BUCKET_COUNT * 2;
+    private static final int BUCKET_COUNT = LINEAR_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given latency.
+     * @param nanos the latency in nanoseconds, negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+
+        buckets.incrementAndGet(indexOf(value));
+        count.increment();
+        total.add(value);
+
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Records the latency since the given start time.
+     * @param start the start time as returned by {@link System#nanoTime()}.
+     * @return the recorded latency in nanoseconds.
+     */
+    public long recordSince(long start) {
+        long nanos = System.nanoTime() - start;
+        record(nanos);
+        return nanos;
+    }
+
+    /**
+     * Returns the count of recorded latencies.
+     * @return the recorded count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     * @param unit the time unit to return the mean in.
+     * @return the mean latency, or zero if nothing was recorded.
+     */
+    public double getMean(TimeUnit unit) {
+        long count = this.count.sum();
+        return count > 0 ? (double) total.sum() / count / unit.toNanos(1) : 0;
+    }
+
+    /**
+     * Returns the maximum of the recorded latencies.
+     * @param unit the time unit to return the maximum in.
+     * @return the maximum latency, or zero if nothing was recorded.
+     */
+    public double getMax(TimeUnit unit) {
+        return (double) max.get() / unit.toNanos(1);
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies.
+     * @param percentile the percentile to return, between zero and one hundred.
+     * @param unit the time unit to return the percentile in.
+     * @return the latency at the percentile, or zero if nothing was recorded.
+     * @throws IllegalArgumentException if the given percentile is out of range.
+     */
+    public double getPercentile(double percentile, TimeUnit unit) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        long[] counts = new long[BUCKET_COUNT];
+        long recorded = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            recorded += counts[index] = buckets.get(index);
+        }
+
+        if (recorded == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            if ((seen += counts[index]) >= rank) {
+                // Report the highest value of the bucket, but never more than the actual maximum
+                return (double) Math.min(valueOf(index), max.get()) / unit.toNanos(1);
+            }
+        }
+
+        return getMax(unit);
+    }
+
+    /**
+     * Resets the histogram.
+     * <p>
+     * Values that are recorded concurrently may be partially reset.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            buckets.set(index, 0);
+        }
+
+        count.reset();
+        total.reset();
+        max.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_COUNT) {
+            return (int) value;
+        }
+
+        // Shift the value, so that its highest bits fit into the sub-buckets of its power of two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR_COUNT + (shift - 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    }
+
+    private static long valueOf(int index) {
+        if (index < LINEAR_COUNT) {
+            return index;
+        }
+
+        int shift = (index - LINEAR_COUNT) / SUB_BUCKET_COUNT + 1;
+        long lowest = (long) ((index - LINEAR_COUNT) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,42 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A listener interface for receiving the measurements recorded by {@link ConnectorMetrics}.
+ * <p>
+ * The listener methods are called synchronously on the thread that recorded the measurement, so implementations must
+ * be thread-safe and should return quickly.
+ */
+public interface MetricsListener {
+
+    /**
+     * Called when a connection was acquired from the pool.
+     * @param nanos the time waited for the connection, in nanoseconds.
+     */
+    default void onConnectionAcquired(long nanos) { }
+
+    /**
+     * Called when a connection was returned to the pool.
+     * @param nanos the time the connection was held, in nanoseconds.
+     */
+    default void onConnectionReleased(long nanos) { }
+
+    /**
+     * Called when a connection could not be acquired within the connection timeout.
+     */
+    default void onConnectionTimeout() { }
+
+    /**
+     * Called when a statement was executed.
+     * @param query the executed query, or null if the query is unknown, like for batches of plain statements.
+     * @param nanos the execution time of the statement, in nanoseconds.
+     */
+    default void onStatementExecuted(@Nullable String query, long nanos) { }
+
+    /**
+     * Called when a transaction failed with a transient error and is retried.
+     * @param attempt the count of previous attempts of the transaction.
+     */
+    default void onTransactionRetried(int attempt) { }
+}
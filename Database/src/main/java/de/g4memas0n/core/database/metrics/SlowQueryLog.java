@@ -0,0 +1,166 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Logger;
+
+/**
+ * A log class for statements that exceeded a configured execution time.
+ * <p>
+ * Slow statements are logged together with their bind parameters and kept in a ring buffer of the most recent slow
+ * statements, which can be inspected through {@link #getEntries()}. Statements are timed by the
+ * {@link InstrumentedConnection instrumented connections} of a connector.
+ */
+@SuppressWarnings("unused")
+public final class SlowQueryLog {
+
+    /**
+     * Logger instance used by the slow query logs.
+     */
+    public static Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+
+    private static final int MAX_VALUE_LENGTH = 64;
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong cursor = new AtomicLong();
+    private final long threshold;
+
+    /**
+     * Constructs a slow query log with the given threshold and capacity.
+     * @param threshold the execution time from which a statement is slow, in milliseconds.
+     * @param capacity the count of most recent slow statements to keep.
+     * @throws IllegalArgumentException if the given threshold is negative or the capacity is not positive.
+     */
+    public SlowQueryLog(long threshold, int capacity) {
+        if (threshold < 0 || capacity <= 0) {
+            throw new IllegalArgumentException("threshold must not be negative and capacity must be positive");
+        }
+
+        this.threshold = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Returns the execution time from which a statement is slow.
+     * @return the threshold in nanoseconds.
+     */
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Records the given statement, if its execution time exceeds the threshold.
+     * @param query the executed query, or null if the query is unknown.
+     * @param parameters the bind parameters of the statement, by parameter index.
+     * @param nanos the execution time of the statement, in nanoseconds.
+     */
+    public void record(@Nullable String query, @NotNull List<Object> parameters, long nanos) {
+        record(query, parameters, 0, nanos);
+    }
+
+    /**
+     * Records the given batch of statements, if its execution time exceeds the threshold.
+     * <p>
+     * The bind parameters of batches are not recorded, as they differ for every row of the batch.
+     * @param query the executed query, or null if the query is unknown.
+     * @param batch the count of statements in the batch.
+     * @param nanos the execution time of the batch, in nanoseconds.
+     */
+    public void recordBatch(@Nullable String query, int batch, long nanos) {
+        record(query, Collections.emptyList(), batch, nanos);
+    }
+
+    private void record(@Nullable String query, @NotNull List<Object> parameters, int batch, long nanos) {
+        if (nanos < threshold) {
+            return;
+        }
+
+        Entry entry = new Entry(System.currentTimeMillis(), nanos, query, parameters, batch,
+                Thread.currentThread().getName());
+        entries.set((int) (cursor.getAndIncrement() % entries.length()), entry);
+
+        logger.warning("Slow query took " + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms: " + entry);
+    }
+
+    /**
+     * Returns the most recent slow statements, ordered from the oldest to the newest.
+     * @return an unmodifiable list of the most recent slow statements.
+     */
+    public @NotNull List<Entry> getEntries() {
+        long end = cursor.get();
+        long start = Math.max(0, end - entries.length());
+        List<Entry> result = new ArrayList<>((int) (end - start));
+
+        for (long position = start; position < end; position++) {
+            Entry entry = entries.get((int) (position % entries.length()));
+            if (entry != null) {
+                result.add(entry);
+            }
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Clears the most recent slow statements.
+     */
+    public void clear() {
+        for (int index = 0; index < entries.length(); index++) {
+            entries.set(index, null);
+        }
+    }
+
+    /**
+     * A slow statement.
+     * @param timestamp the time the statement completed, in milliseconds since the epoch.
+     * @param nanos the execution time of the statement, in nanoseconds.
+     * @param query the executed query, or null if the query is unknown.
+     * @param parameters the bind parameters of the statement, by parameter index starting with one.
+     * @param batch the count of statements in the batch, or zero if the statement was not executed as batch.
+     * @param thread the name of the thread that executed the statement.
+     */
+    public record Entry(long timestamp, long nanos, @Nullable String query, @NotNull List<Object> parameters,
+                        int batch, @NotNull String thread) {
+
+        @Override
+        public @NotNull String toString() {
+            StringBuilder builder = new StringBuilder(query != null ? query : "<batch>");
+
+            if (!parameters.isEmpty()) {
+                builder.append(" [");
+                for (int index = 0; index < parameters.size(); index++) {
+                    if (index > 0) {
+                        builder.append(", ");
+                    }
+                    builder.append(format(parameters.get(index)));
+                }
+                builder.append(']');
+            }
+            if (batch > 0) {
+                builder.append(" (batch of ").append(batch).append(')');
+            }
+
+            return builder.append(" on thread ").append(thread).toString();
+        }
+
+        private static @NotNull String format(@Nullable Object value) {
+            if (value == null) {
+                return "null";
+            } else if (value instanceof byte[] bytes) {
+                return "byte[" + bytes.length + "]";
+            } else if (value instanceof CharSequence || value instanceof Character) {
+                String string = value.toString();
+                return "'" + (string.length() > MAX_VALUE_LENGTH ? string.substring(0, MAX_VALUE_LENGTH) + "..."
+                        : string) + "'";
+            }
+
+            return value.toString();
+        }
+    }
+}
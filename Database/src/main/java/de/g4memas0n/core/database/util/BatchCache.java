@@ -0,0 +1,90 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded least-recently-used cache for parsed batch files.
+ * <p>
+ * Entries are keyed by the resource path and only returned if the checksum of the resource content still matches.
+ */
+final class BatchCache {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(@NotNull Map.Entry<String, Entry> eldest) {
+            return size() > capacity;
+        }
+    };
+
+    private int capacity;
+
+    /**
+     * Constructs a cache with the given capacity.
+     * @param capacity the maximum count of cached batch files.
+     */
+    BatchCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the cached statements for the given path and checksum.
+     * @param path the path of the batch file.
+     * @param checksum the checksum of the batch file content.
+     * @return the cached statements, or null if not cached or the checksum has changed.
+     */
+    synchronized @Nullable List<String> get(@NotNull String path, long checksum) {
+        Entry entry = entries.get(path);
+        if (entry == null || entry.checksum() != checksum) {
+            return null;
+        }
+
+        return entry.statements();
+    }
+
+    /**
+     * Caches the statements for the given path and checksum.
+     * @param path the path of the batch file.
+     * @param checksum the checksum of the batch file content.
+     * @param statements the parsed statements.
+     */
+    synchronized void put(@NotNull String path, long checksum, @NotNull List<String> statements) {
+        if (capacity > 0) {
+            entries.put(path, new Entry(checksum, statements));
+        }
+    }
+
+    /**
+     * Removes the cached statements for the given path.
+     * @param path the path of the batch file.
+     */
+    synchronized void invalidate(@NotNull String path) {
+        entries.remove(path);
+    }
+
+    /**
+     * Removes all cached statements.
+     */
+    synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Changes the capacity of the cache, evicting the least recently used entries if necessary.
+     * @param capacity the new maximum count of cached batch files.
+     */
+    synchronized void resize(int capacity) {
+        this.capacity = capacity;
+
+        var iterator = entries.entrySet().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private record Entry(long checksum, @NotNull List<String> statements) { }
+}
@@ -0,0 +1,266 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An executor class for running .sql batch files in chunks.
+ * <p>
+ * Instead of adding a whole batch file to a single batch, the executor flushes the batch of the statement every
+ * time the configured chunk size or chunk length has been reached.
+ * @see BatchReader
+ */
+@SuppressWarnings("unused")
+public final class BatchExecutor {
+
+    private final Statement statement;
+    private Consumer<Chunk> listener;
+    private boolean transactional;
+    private boolean escapes;
+    private int chunkSize = 500;
+    private long chunkLength;
+
+    /**
+     * Constructs a batch executor for the given statement.
+     * @param statement the statement to execute the batches with.
+     */
+    public BatchExecutor(@NotNull Statement statement) {
+        this.statement = statement;
+    }
+
+    /**
+     * Returns the maximum count of statements per chunk.
+     * @return the chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the maximum count of statements per chunk.
+     * @param size the new chunk size.
+     * @throws IllegalArgumentException if the given size is not positive.
+     */
+    public void setChunkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        this.chunkSize = size;
+    }
+
+    /**
+     * Returns the maximum length of all statements in a chunk, in characters.
+     * @return the chunk length, or zero if unlimited.
+     */
+    public long getChunkLength() {
+        return chunkLength;
+    }
+
+    /**
+     * Sets the maximum length of all statements in a chunk, in characters.
+     * @param length the new chunk length, or zero for unlimited.
+     * @throws IllegalArgumentException if the given length is negative.
+     */
+    public void setChunkLength(long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("length must not be negative");
+        }
+
+        this.chunkLength = length;
+    }
+
+    /**
+     * Returns whether each chunk is executed in its own transaction.
+     * @return true, if the chunks are executed in transactions.
+     */
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    /**
+     * Sets whether each chunk is executed in its own transaction.
+     * <p>
+     * Chunks are only committed if auto-commit is enabled on the connection of the statement. Otherwise, the chunks
+     * are executed inside the transaction of the caller, which is neither committed nor rolled back by the executor.
+     * @param transactional true, to commit every chunk separately.
+     */
+    public void setTransactional(boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    /**
+     * Returns whether a backslash escapes the following character in single-quoted strings of the batch files.
+     * @return true, if backslash escapes are enabled.
+     */
+    public boolean isBackslashEscapes() {
+        return escapes;
+    }
+
+    /**
+     * Sets whether a backslash escapes the following character in single-quoted strings of the batch files.
+     * <p>
+     * Backslash escapes are disabled by default, as defined by the sql standard. They should be enabled for MySQL and
+     * MariaDB batch files, unless the {@code NO_BACKSLASH_ESCAPES} sql mode is used.
+     * @param escapes true, to enable backslash escapes.
+     */
+    public void setBackslashEscapes(boolean escapes) {
+        this.escapes = escapes;
+    }
+
+    /**
+     * Sets the listener that gets notified after a chunk has been executed.
+     * @param listener the new chunk listener or null.
+     */
+    public void setListener(@Nullable Consumer<Chunk> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Executes the batch file for the given path.
+     * @param path the path of the batch file.
+     * @return the count of the executed statements.
+     * @throws IllegalArgumentException if the file is not visible to the class loader.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int execute(@NotNull String path) throws IOException, SQLException {
+        try (Stream<String> queries = BatchReader.stream(path, escapes)) {
+            return execute(queries.iterator());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Executes the batch file from the given stream.
+     * @param stream the stream to read from.
+     * @return the count of the executed statements.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int execute(@NotNull InputStream stream) throws IOException, SQLException {
+        try (Stream<String> queries = BatchReader.stream(stream, escapes)) {
+            return execute(queries.iterator());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Executes the batch file at the given file path.
+     * @param path the path to the batch file.
+     * @return the count of the executed statements.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int execute(@NotNull Path path) throws IOException, SQLException {
+        try (Stream<String> queries = BatchReader.stream(path, escapes)) {
+            return execute(queries.iterator());
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Executes the given statements.
+     * <p>
+     * If the executor is transactional, all uncommitted chunks will be rolled back if an error occurs.
+     * @param queries the statements to execute.
+     * @return the count of the executed statements.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int execute(@NotNull Iterator<String> queries) throws SQLException {
+        // Chunks are only committed if auto-commit was enabled, otherwise they belong to the transaction of the caller
+        Connection connection = transactional ? statement.getConnection() : null;
+        if (connection != null && !connection.getAutoCommit()) {
+            connection = null;
+        }
+
+        int index = 0, count = 0, total = 0;
+        long length = 0;
+
+        if (connection != null) {
+            connection.setAutoCommit(false);
+        }
+
+        try {
+            while (queries.hasNext()) {
+                String query = queries.next();
+                statement.addBatch(query);
+                length += query.length();
+                count++;
+
+                if (count >= chunkSize || chunkLength > 0 && length >= chunkLength) {
+                    flush(connection, index++, count, length);
+                    total += count;
+                    count = 0;
+                    length = 0;
+                }
+            }
+
+            if (count > 0) {
+                flush(connection, index, count, length);
+                total += count;
+            }
+        } catch (Throwable ex) {
+            try {
+                statement.clearBatch();
+                if (connection != null) {
+                    // Auto-commit is only enabled again after the rollback, as it would commit the failed chunk
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+
+            throw ex;
+        }
+
+        if (connection != null) {
+            connection.setAutoCommit(true);
+        }
+
+        return total;
+    }
+
+    private void flush(@Nullable Connection connection, int index, int count, long length) throws SQLException {
+        long start = System.nanoTime();
+        long updates = 0;
+
+        for (int updateCount : statement.executeBatch()) {
+            if (updateCount > 0) {
+                updates += updateCount;
+            }
+        }
+
+        if (connection != null) {
+            connection.commit();
+        }
+
+        if (listener != null) {
+            listener.accept(new Chunk(index, count, length, updates, System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * A report of an executed chunk.
+     * @param index the zero-based index of the chunk.
+     * @param statements the count of statements in the chunk.
+     * @param length the length of all statements in the chunk, in characters.
+     * @param updates the sum of all known update counts of the chunk.
+     * @param nanos the time taken to execute and commit the chunk, in nanoseconds.
+     */
+    public record Chunk(int index, int statements, long length, long updates, long nanos) { }
+}
@@ -1,15 +1,24 @@
 package de.g4memas0n.core.database.util;
 
 import org.jetbrains.annotations.NotNull;
-import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators.AbstractSpliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32;
 
 /**
  * A reader class for loading .sql batch files.
@@ -17,6 +26,8 @@ import java.util.List;
 @SuppressWarnings("unused")
 public final class BatchReader {
 
+    private static final BatchCache cache = new BatchCache(32);
+
     private BatchReader() {}
 
     /**
@@ -29,14 +40,18 @@ public final class BatchReader {
      * @throws SQLException if a database access error occurs.
      */
     public static int readBatch(@NotNull Statement statement, @NotNull String path) throws IOException, SQLException {
-        String file = path + (path.matches("\\.sql$") ? "" : ".sql");
-        try (InputStream stream = BatchReader.class.getClassLoader().getResourceAsStream(file)) {
-            if (stream == null) {
-                throw new IllegalArgumentException("file not found");
-            }
+        List<String> statements = readBatch(path);
 
-            return readBatch(statement, stream);
+        try {
+            for (String query : statements) {
+                statement.addBatch(query);
+            }
+        } catch (SQLException ex) {
+            statement.clearBatch();
+            throw ex;
         }
+
+        return statements.size();
     }
 
     /**
@@ -48,64 +63,52 @@ public final class BatchReader {
      * @throws SQLException if a database access error occurs.
      */
     public static int readBatch(@NotNull Statement statement, @NotNull InputStream stream) throws IOException, SQLException {
-        int count = 0;
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-            StringBuilder query = new StringBuilder();
-            String line;
-            int index;
-
-            while ((line = reader.readLine()) != null) {
-                // Check for comments in current line
-                if ((index = line.indexOf("--")) >= 0) {
-                    if (index == 0) {
-                        continue;
-                    }
-
-                    line = line.substring(0, index).trim();
-                }
-
-                // Check for ending statements
-                while ((index = line.indexOf(";")) >= 0) {
-                    query.append(line.substring(0, index).stripLeading());
-                    if (!query.isEmpty()) {
-                        statement.addBatch(query.toString());
-                        query.setLength(0);
-                        count++;
-                    }
-
-                    line = line.substring(index + 1);
-                }
-
-                query.append(line.strip().replaceAll(" {2,}", " "));
-            }
-        } catch (SQLException ex) {
-            if (count > 0) {
-                statement.clearBatch();
-            }
-
-            throw ex;
-        }
+        return readBatch(statement, new BatchTokenizer(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+    }
 
-        return count;
+    /**
+     * Reads the batch file at the given file path and loads it to the given statement.
+     * @param statement the statement to add the queries to.
+     * @param path the path to the batch file.
+     * @return the count of the batch statement.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     * @see #stream(Path)
+     */
+    public static int readBatch(@NotNull Statement statement, @NotNull Path path) throws IOException, SQLException {
+        return readBatch(statement, openFile(path));
     }
 
     /**
      * Reads the batch file for the given path.
+     * <p>
+     * The parsed statements are cached by the path and the checksum of the file content, so reading an unchanged
+     * batch file again skips parsing it.
      * @param path the path of the batch file.
      * @return a list of all batch statements.
      * @throws IllegalArgumentException if the file is not visible to the class loader.
      * @throws IOException if an I/O error occurs.
+     * @see #invalidate(String)
      */
     public static @NotNull List<String> readBatch(@NotNull String path) throws IOException {
-        String file = path + (path.matches("\\.sql$") ? "" : ".sql");
-        try (InputStream stream = BatchReader.class.getClassLoader().getResourceAsStream(file)) {
-            if (stream == null) {
-                throw new IllegalArgumentException("file not found");
-            }
+        String file = getFileName(path);
+        byte[] content;
+
+        try (InputStream stream = getResource(file)) {
+            content = stream.readAllBytes();
+        }
 
-            return readBatch(stream);
+        CRC32 checksum = new CRC32();
+        checksum.update(content);
+
+        List<String> statements = cache.get(file, checksum.getValue());
+        if (statements == null) {
+            statements = Collections.unmodifiableList(readBatch(new ByteArrayInputStream(content)));
+            cache.put(file, checksum.getValue(), statements);
         }
+
+        // The cached statements are copied, as callers may modify the returned list
+        return new ArrayList<>(statements);
     }
 
     /**
@@ -115,38 +118,204 @@ public final class BatchReader {
      * @throws IOException if an I/O error occurs.
      */
     public static @NotNull List<String> readBatch(@NotNull InputStream stream) throws IOException {
-        List<String> statements = new LinkedList<>();
+        return readBatch(new BatchTokenizer(new InputStreamReader(stream, StandardCharsets.UTF_8)));
+    }
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
-            StringBuilder query = new StringBuilder();
-            String line;
-            int index;
+    /**
+     * Reads the batch file at the given file path.
+     * @param path the path to the batch file.
+     * @return a list of all batch statements.
+     * @throws IOException if an I/O error occurs.
+     * @see #stream(Path)
+     */
+    public static @NotNull List<String> readBatch(@NotNull Path path) throws IOException {
+        return readBatch(openFile(path));
+    }
 
-            while ((line = reader.readLine()) != null) {
-                // Check for comments in the current line
-                if ((index = line.indexOf("--")) >= 0) {
-                    if (index == 0) {
-                        continue;
-                    }
+    /**
+     * Lazily reads the batch file for the given path.
+     * <p>
+     * The statements are parsed on demand while the returned stream is consumed. The stream must be closed after use
+     * to release the underlying resource.
+     * @param path the path of the batch file.
+     * @return a stream of all batch statements.
+     * @throws IllegalArgumentException if the file is not visible to the class loader.
+     * @see #stream(InputStream)
+     */
+    public static @NotNull Stream<String> stream(@NotNull String path) {
+        return stream(path, false);
+    }
 
-                    line = line.substring(0, index).trim();
-                }
+    /**
+     * Lazily reads the batch file for the given path, optionally with backslash escapes in single-quoted strings.
+     * @param path the path of the batch file.
+     * @param escapes true, if a backslash escapes the following character, like in MySQL and MariaDB.
+     * @return a stream of all batch statements.
+     * @throws IllegalArgumentException if the file is not visible to the class loader.
+     * @see #stream(String)
+     */
+    public static @NotNull Stream<String> stream(@NotNull String path, boolean escapes) {
+        return stream(getResource(getFileName(path)), escapes);
+    }
 
-                // Check for ending statements
-                while ((index = line.indexOf(";")) >= 0) {
-                    query.append(line.substring(0, index).stripLeading());
-                    if (!query.isEmpty()) {
-                        statements.add(query.toString());
-                        query.setLength(0);
-                    }
+    /**
+     * Lazily reads the batch file from the given stream.
+     * <p>
+     * The statements are parsed on demand while the returned stream is consumed, so only the current statement is
+     * held in memory. I/O errors are thrown as {@link UncheckedIOException} during consumption. Closing the returned
+     * stream also closes the given stream.
+     * @param stream the stream to read from.
+     * @return a stream of all batch statements.
+     */
+    public static @NotNull Stream<String> stream(@NotNull InputStream stream) {
+        return stream(stream, false);
+    }
 
-                    line = line.substring(index + 1);
-                }
+    /**
+     * Lazily reads the batch file from the given stream, optionally with backslash escapes in single-quoted strings.
+     * @param stream the stream to read from.
+     * @param escapes true, if a backslash escapes the following character, like in MySQL and MariaDB.
+     * @return a stream of all batch statements.
+     * @see #stream(InputStream)
+     */
+    public static @NotNull Stream<String> stream(@NotNull InputStream stream, boolean escapes) {
+        return stream(new BatchTokenizer(new InputStreamReader(stream, StandardCharsets.UTF_8), escapes));
+    }
+
+    /**
+     * Lazily reads the batch file at the given file path.
+     * <p>
+     * The file is read through a file channel and decoded directly from a heap buffer or, for large files, from a
+     * memory-mapped buffer. The stream must be closed after use to release the file.
+     * @param path the path to the batch file.
+     * @return a stream of all batch statements.
+     * @throws IOException if the file could not be opened.
+     * @see #stream(InputStream)
+     */
+    public static @NotNull Stream<String> stream(@NotNull Path path) throws IOException {
+        return stream(path, false);
+    }
+
+    /**
+     * Lazily reads the batch file at the given file path, optionally with backslash escapes in single-quoted strings.
+     * @param path the path to the batch file.
+     * @param escapes true, if a backslash escapes the following character, like in MySQL and MariaDB.
+     * @return a stream of all batch statements.
+     * @throws IOException if the file could not be opened.
+     * @see #stream(Path)
+     */
+    public static @NotNull Stream<String> stream(@NotNull Path path, boolean escapes) throws IOException {
+        return stream(new BatchTokenizer(ChannelReader.open(path), escapes));
+    }
+
+    /**
+     * Sets the maximum count of batch files held in the cache.
+     * @param size the new cache size, or zero to disable caching.
+     * @throws IllegalArgumentException if the given size is negative.
+     */
+    public static void setCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+
+        cache.resize(size);
+    }
+
+    /**
+     * Removes the cached statements of the batch file for the given path.
+     * @param path the path of the batch file.
+     */
+    public static void invalidate(@NotNull String path) {
+        cache.invalidate(getFileName(path));
+    }
 
-                query.append(line.strip().replaceAll(" {2,}", " "));
+    /**
+     * Removes the cached statements of all batch files.
+     */
+    public static void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private static int readBatch(@NotNull Statement statement,
+                                 @NotNull BatchTokenizer batch) throws IOException, SQLException {
+        int count = 0;
+
+        try (BatchTokenizer tokenizer = batch) {
+            String query;
+
+            while ((query = tokenizer.next()) != null) {
+                statement.addBatch(query);
+                count++;
+            }
+        } catch (SQLException ex) {
+            if (count > 0) {
+                statement.clearBatch();
+            }
+
+            throw ex;
+        }
+
+        return count;
+    }
+
+    private static @NotNull List<String> readBatch(@NotNull BatchTokenizer batch) throws IOException {
+        List<String> statements = new ArrayList<>();
+
+        try (BatchTokenizer tokenizer = batch) {
+            String query;
+
+            while ((query = tokenizer.next()) != null) {
+                statements.add(query);
             }
         }
 
         return statements;
     }
+
+    private static @NotNull Stream<String> stream(@NotNull BatchTokenizer tokenizer) {
+        int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+        Spliterator<String> spliterator = new AbstractSpliterator<>(Long.MAX_VALUE, characteristics) {
+            @Override
+            public boolean tryAdvance(@NotNull Consumer<? super String> action) {
+                String query;
+                try {
+                    query = tokenizer.next();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+
+                if (query == null) {
+                    return false;
+                }
+
+                action.accept(query);
+                return true;
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                tokenizer.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static @NotNull String getFileName(@NotNull String path) {
+        return path.endsWith(".sql") ? path : path + ".sql";
+    }
+
+    private static @NotNull InputStream getResource(@NotNull String file) {
+        InputStream stream = BatchReader.class.getClassLoader().getResourceAsStream(file);
+        if (stream == null) {
+            throw new IllegalArgumentException("file not found");
+        }
+
+        return stream;
+    }
+
+    private static @NotNull BatchTokenizer openFile(@NotNull Path path) throws IOException {
+        return new BatchTokenizer(ChannelReader.open(path));
+    }
 }
@@ -0,0 +1,201 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A single-pass tokenizer that splits a sql script into its statements.
+ * <p>
+ * The tokenizer skips line and block comments, keeps quoted strings and identifiers untouched and collapses any
+ * other whitespace into a single space. Line breaks after opening parentheses or commas and before closing
+ * parentheses or commas are dropped entirely.
+ * <p>
+ * Quotes inside quoted strings and identifiers are escaped by doubling them, as defined by the sql standard. If
+ * enabled, a backslash inside single-quoted strings escapes the following character as well, like in MySQL and
+ * MariaDB dumps. Otherwise, backslashes are read literally.
+ */
+final class BatchTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder query;
+    private final boolean escapes;
+    private int position;
+    private int limit;
+
+    private boolean space;
+    private boolean newline;
+
+    /**
+     * Constructs a tokenizer that reads from the given reader and reads backslashes literally.
+     * @param reader the reader to read from.
+     */
+    BatchTokenizer(@NotNull Reader reader) {
+        this(reader, false);
+    }
+
+    /**
+     * Constructs a tokenizer that reads from the given reader.
+     * @param reader the reader to read from.
+     * @param escapes true, if a backslash escapes the following character in single-quoted strings.
+     */
+    BatchTokenizer(@NotNull Reader reader, boolean escapes) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.query = new StringBuilder(256);
+        this.escapes = escapes;
+    }
+
+    /**
+     * Reads the next statement from the underlying reader.
+     * @return the next statement, or null if the end of the script has been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Nullable String next() throws IOException {
+        int current;
+
+        while ((current = read()) >= 0) {
+            char character = (char) current;
+
+            switch (character) {
+                case ';' -> {
+                    if (!query.isEmpty()) {
+                        return flush();
+                    }
+                }
+                case '\n', '\r' -> {
+                    space = true;
+                    newline = true;
+                }
+                case ' ', '\t', '\f' -> space = true;
+                case '-' -> {
+                    if (peek() == '-') {
+                        skipLineComment();
+                    } else {
+                        append(character);
+                    }
+                }
+                case '/' -> {
+                    if (peek() == '*') {
+                        position++;
+                        skipBlockComment();
+                    } else {
+                        append(character);
+                    }
+                }
+                case '\'', '"', '`' -> {
+                    append(character);
+                    readQuoted(character);
+                }
+                default -> append(character);
+            }
+        }
+
+        // Return the last statement even if it is not terminated
+        return query.isEmpty() ? null : flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void append(char character) {
+        if (space && !query.isEmpty()) {
+            char last = query.charAt(query.length() - 1);
+
+            if (!newline || last != '(' && last != ',' && character != ')' && character != ',') {
+                query.append(' ');
+            }
+        }
+
+        query.append(character);
+        space = false;
+        newline = false;
+    }
+
+    private @NotNull String flush() {
+        String statement = query.toString();
+        query.setLength(0);
+        space = false;
+        newline = false;
+        return statement;
+    }
+
+    private void readQuoted(char quote) throws IOException {
+        int current;
+
+        while ((current = read()) >= 0) {
+            query.append((char) current);
+
+            // An escaped quote is read as a closing and an opening quote
+            if (current == quote) {
+                return;
+            }
+
+            // A backslash is only an escape character in single-quoted strings of some vendors
+            if (escapes && current == '\\' && quote == '\'' && (current = read()) >= 0) {
+                query.append((char) current);
+            }
+        }
+    }
+
+    private void skipLineComment() throws IOException {
+        int current;
+
+        while ((current = read()) >= 0) {
+            if (current == '\n' || current == '\r') {
+                break;
+            }
+        }
+
+        space = true;
+        newline = true;
+    }
+
+    private void skipBlockComment() throws IOException {
+        int current;
+
+        while ((current = read()) >= 0) {
+            if (current == '*' && peek() == '/') {
+                position++;
+                break;
+            }
+        }
+
+        space = true;
+    }
+
+    private int read() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position >= limit && !fill()) {
+            return -1;
+        }
+
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int count;
+
+        do {
+            count = reader.read(buffer, 0, buffer.length);
+        } while (count == 0);
+
+        position = 0;
+        limit = Math.max(count, 0);
+        return count > 0;
+    }
+}
@@ -0,0 +1,245 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * An importer class for bulk loading rows through the native bulk load path of the database vendor.
+ * <p>
+ * Depending on the {@link Connector#getVendorName() vendor} of the connector, the rows are imported through:
+ * <ul>
+ *     <li>{@code COPY ... FROM STDIN} using the copy api of the postgres driver.</li>
+ *     <li>{@code LOAD DATA LOCAL INFILE} streaming for mysql and mariadb. This requires the
+ *     {@code allowLoadLocalInfile} (mysql) or {@code allowLocalInfile} (mariadb) driver property.</li>
+ *     <li>A single transaction of prepared batches with relaxed synchronous writes for sqlite and h2.</li>
+ *     <li>Chunked and committed prepared batches for any other vendor or if the native path is unavailable.</li>
+ * </ul>
+ * @see BulkLoader
+ */
+@SuppressWarnings("unused")
+public final class BulkImporter {
+
+    /**
+     * Logger instance used by the bulk importer.
+     */
+    public static Logger logger = Logger.getLogger(BulkImporter.class.getName());
+
+    private final Connector connector;
+    private final String table;
+    private final String[] columns;
+    private int chunkSize = 10000;
+
+    /**
+     * Constructs a bulk importer for the given table and columns.
+     * <p>
+     * The table and column names are used as given, so they must be quoted by the caller if necessary.
+     * @param connector the connector to import the rows with.
+     * @param table the name of the table to import into.
+     * @param columns the names of the columns in the order of the row values.
+     */
+    public BulkImporter(@NotNull Connector connector, @NotNull String table, @NotNull String... columns) {
+        if (columns.length == 0) {
+            throw new IllegalArgumentException("columns must not be empty");
+        }
+
+        this.connector = connector;
+        this.table = table;
+        this.columns = columns;
+    }
+
+    /**
+     * Returns the count of rows per prepared batch, if the rows are imported through prepared batches.
+     * @return the chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the count of rows per prepared batch, if the rows are imported through prepared batches.
+     * @param size the new chunk size.
+     * @throws IllegalArgumentException if the given size is not positive.
+     */
+    public void setChunkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        this.chunkSize = size;
+    }
+
+    /**
+     * Imports the given rows.
+     * @param rows the rows to import, each containing the values of the columns.
+     * @return the count of the imported rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Iterable<? extends Object[]> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Imports the given rows.
+     * @param rows the rows to import, each containing the values of the columns.
+     * @return the count of the imported rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Stream<? extends Object[]> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Imports the given rows.
+     * @param rows the rows to import, each containing the values of the columns.
+     * @return the count of the imported rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        Connection connection = connector.getConnection();
+
+        try {
+            return switch (connector.getVendorName()) {
+                case "PostgreSQL" -> copy(connection, rows);
+                case "MySQL", "MariaDB" -> loadData(connection, rows);
+                case "SQLite", "H2" -> loadLocal(connection, rows);
+                default -> loadBatches(connection, rows);
+            };
+        } finally {
+            connector.closeConnection(connection);
+        }
+    }
+
+    private long copy(@NotNull Connection connection, @NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        Object copyManager;
+        Method copyIn;
+
+        try {
+            ClassLoader loader = connection.getClass().getClassLoader();
+            Class<?> type = Class.forName("org.postgresql.PGConnection", true, loader);
+            copyManager = type.getMethod("getCopyAPI").invoke(connection.unwrap(type));
+            copyIn = copyManager.getClass().getMethod("copyIn", String.class, InputStream.class);
+        } catch (ReflectiveOperationException ex) {
+            logger.warning("Could not find postgres copy api, falling back to prepared batches");
+            return loadBatches(connection, rows);
+        }
+
+        String query = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+
+        try {
+            return (long) copyIn.invoke(copyManager, query, new CsvInputStream(rows, ""));
+        } catch (InvocationTargetException ex) {
+            throw unwrap(ex);
+        } catch (IllegalAccessException ex) {
+            throw new SQLException("Could not access postgres copy api", ex);
+        }
+    }
+
+    private long loadData(@NotNull Connection connection,
+                          @NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            Statement delegate = statement.unwrap(Statement.class);
+            Method setStream;
+
+            try {
+                setStream = delegate.getClass().getMethod("setLocalInfileInputStream", InputStream.class);
+            } catch (NoSuchMethodException ex) {
+                logger.warning("Could not find local infile support, falling back to prepared batches");
+                return loadBatches(connection, rows);
+            }
+
+            // Without an escape character, unquoted NULL values are read as null
+            String query = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + table + " CHARACTER SET utf8mb4"
+                    + " FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY ''"
+                    + " LINES TERMINATED BY '\\n' (" + String.join(", ", columns) + ")";
+
+            try {
+                setStream.invoke(delegate, new CsvInputStream(rows, "NULL"));
+                return statement.executeUpdate(query);
+            } catch (InvocationTargetException ex) {
+                throw unwrap(ex);
+            } catch (IllegalAccessException ex) {
+                throw new SQLException("Could not access local infile support", ex);
+            } finally {
+                try {
+                    setStream.invoke(delegate, (InputStream) null);
+                } catch (ReflectiveOperationException ignored) { }
+            }
+        }
+    }
+
+    private long loadLocal(@NotNull Connection connection,
+                           @NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        String synchronous = null;
+
+        if (connector.getVendorName().equals("SQLite")) {
+            synchronous = pragma(connection, "synchronous");
+            pragma(connection, "synchronous", "OFF");
+        }
+
+        try {
+            connection.setAutoCommit(false);
+
+            BulkLoader loader = new BulkLoader(connection, createInsert());
+            loader.setChunkSize(chunkSize);
+            long count = loader.load(rows);
+
+            connection.commit();
+            return count;
+        } catch (SQLException | RuntimeException ex) {
+            connection.rollback();
+            throw ex;
+        } finally {
+            connection.setAutoCommit(true);
+
+            if (synchronous != null) {
+                pragma(connection, "synchronous", synchronous);
+            }
+        }
+    }
+
+    private long loadBatches(@NotNull Connection connection,
+                             @NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        BulkLoader loader = new BulkLoader(connection, createInsert());
+        loader.setChunkSize(chunkSize);
+        loader.setTransactional(true);
+        return loader.load(rows);
+    }
+
+    private @NotNull String createInsert() {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + "?, ".repeat(columns.length - 1) + "?)";
+    }
+
+    private static @Nullable String pragma(@NotNull Connection connection, @NotNull String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("PRAGMA " + name)) {
+            return result.next() ? result.getString(1) : null;
+        }
+    }
+
+    private static void pragma(@NotNull Connection connection, @NotNull String name,
+                               @NotNull String value) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA " + name + " = " + value);
+        }
+    }
+
+    private static @NotNull SQLException unwrap(@NotNull InvocationTargetException ex) {
+        if (ex.getCause() instanceof SQLException cause) {
+            return cause;
+        }
+
+        return new SQLException("Bulk import failed", ex.getCause());
+    }
+}
@@ -0,0 +1,225 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * A loader class for bulk inserting rows through a single prepared statement.
+ * <p>
+ * The rows are bound to the parameters of the given insert or upsert query and added to the batch of the prepared
+ * statement, which gets executed every time the configured chunk size has been reached. This allows drivers to
+ * rewrite or pipeline the batches, for example with {@code rewriteBatchedStatements} on mysql or
+ * {@code reWriteBatchedInserts} on postgres.
+ * @see BatchExecutor
+ */
+@SuppressWarnings("unused")
+public final class BulkLoader {
+
+    private final Connection connection;
+    private final String query;
+    private boolean transactional;
+    private int chunkSize = 1000;
+
+    /**
+     * Constructs a bulk loader for the given connection and parameterized query.
+     * @param connection the connection to load the rows with.
+     * @param query the parameterized insert or upsert query.
+     */
+    public BulkLoader(@NotNull Connection connection, @NotNull String query) {
+        this.connection = connection;
+        this.query = query;
+    }
+
+    /**
+     * Returns the maximum count of rows per chunk.
+     * @return the chunk size.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Sets the maximum count of rows per chunk.
+     * @param size the new chunk size.
+     * @throws IllegalArgumentException if the given size is not positive.
+     */
+    public void setChunkSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+
+        this.chunkSize = size;
+    }
+
+    /**
+     * Returns whether each chunk is loaded in its own transaction.
+     * @return true, if the chunks are loaded in transactions.
+     */
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    /**
+     * Sets whether each chunk is loaded in its own transaction.
+     * <p>
+     * Chunks are only committed if auto-commit is enabled on the connection. Otherwise, the chunks are loaded inside
+     * the transaction of the caller, which is neither committed nor rolled back by the loader.
+     * @param transactional true, to commit every chunk separately.
+     */
+    public void setTransactional(boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    /**
+     * Loads the given rows.
+     * @param rows the rows to load, each containing the values of the query parameters.
+     * @return the count of the loaded rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Iterable<? extends Object[]> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Loads the given rows.
+     * @param rows the rows to load, each containing the values of the query parameters.
+     * @return the count of the loaded rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Stream<? extends Object[]> rows) throws SQLException {
+        return load(rows.iterator());
+    }
+
+    /**
+     * Loads the rows of the csv file at the given file path.
+     * <p>
+     * All values are bound as strings, so the database or the driver must be able to convert them to the column
+     * types. Empty unquoted values are bound as null.
+     * @param path the path to the csv file.
+     * @param separator the character separating the values.
+     * @param header true, to skip the first row of the file.
+     * @return the count of the loaded rows.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long loadCsv(@NotNull Path path, char separator, boolean header) throws IOException, SQLException {
+        try (CsvReader reader = new CsvReader(ChannelReader.open(path), separator)) {
+            if (header) {
+                reader.next();
+            }
+
+            return load(new Iterator<>() {
+                private String[] next;
+
+                @Override
+                public boolean hasNext() {
+                    if (next == null) {
+                        try {
+                            next = reader.next();
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    }
+                    return next != null;
+                }
+
+                @Override
+                public String[] next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+
+                    String[] row = next;
+                    next = null;
+                    return row;
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Loads the given rows.
+     * <p>
+     * If the loader is transactional, all uncommitted chunks will be rolled back if an error occurs.
+     * @param rows the rows to load, each containing the values of the query parameters.
+     * @return the count of the loaded rows.
+     * @throws SQLException if a database access error occurs.
+     */
+    public long load(@NotNull Iterator<? extends Object[]> rows) throws SQLException {
+        // Chunks are only committed if auto-commit was enabled, otherwise they belong to the transaction of the caller
+        boolean commit = transactional && connection.getAutoCommit();
+        long total = 0;
+        int count = 0;
+
+        if (commit) {
+            connection.setAutoCommit(false);
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            while (rows.hasNext()) {
+                Object[] row = rows.next();
+
+                // Rows may have fewer values than the previous row, which must not keep its trailing parameters
+                statement.clearParameters();
+                for (int index = 0; index < row.length; index++) {
+                    if (row[index] == null) {
+                        statement.setNull(index + 1, Types.NULL);
+                    } else {
+                        statement.setObject(index + 1, row[index]);
+                    }
+                }
+
+                statement.addBatch();
+                count++;
+
+                if (count >= chunkSize) {
+                    flush(statement, commit);
+                    total += count;
+                    count = 0;
+                }
+            }
+
+            if (count > 0) {
+                flush(statement, commit);
+                total += count;
+            }
+        } catch (Throwable ex) {
+            if (commit) {
+                try {
+                    // Auto-commit is only enabled again after the rollback, as it would commit the failed chunk
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                } catch (SQLException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+            }
+
+            throw ex;
+        }
+
+        if (commit) {
+            connection.setAutoCommit(true);
+        }
+
+        return total;
+    }
+
+    private void flush(@NotNull PreparedStatement statement, boolean commit) throws SQLException {
+        statement.executeBatch();
+
+        if (commit) {
+            connection.commit();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A reader that decodes UTF-8 directly from a file channel.
+ * <p>
+ * Files of at least {@link #MAPPING_THRESHOLD} bytes are memory-mapped in windows, smaller files are read into a
+ * single heap buffer. In both cases the bytes are decoded straight into the buffer of the caller.
+ */
+final class ChannelReader extends Reader {
+
+    /**
+     * The file size in bytes from which on the file gets memory-mapped.
+     */
+    static final long MAPPING_THRESHOLD = 1L << 20;
+
+    private static final long WINDOW_SIZE = 1L << 26;
+
+    private final FileChannel channel;
+    private final CharsetDecoder decoder;
+    private final long size;
+    private ByteBuffer buffer;
+    private long offset;
+    private boolean finished;
+
+    /**
+     * Constructs a reader for the given channel.
+     * @param channel the channel to read from.
+     * @throws IOException if an I/O error occurs.
+     */
+    ChannelReader(@NotNull FileChannel channel) throws IOException {
+        this.channel = channel;
+        this.decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.size = channel.size();
+        this.buffer = load(0);
+    }
+
+    /**
+     * Opens a reader for the file at the given path.
+     * @param path the path to the file.
+     * @return the reader for the file.
+     * @throws IOException if an I/O error occurs.
+     */
+    static @NotNull ChannelReader open(@NotNull Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new ChannelReader(channel);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public int read(char[] chars, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        CharBuffer target = CharBuffer.wrap(chars, off, len);
+
+        while (!finished && target.position() == off) {
+            boolean last = offset + buffer.limit() >= size;
+            CoderResult result = decoder.decode(buffer, target, last);
+
+            if (result.isError()) {
+                result.throwException();
+            }
+
+            if (result.isOverflow()) {
+                break;
+            }
+
+            if (last) {
+                decoder.flush(target);
+                finished = true;
+            } else {
+                // Continue with the first byte that has not been decoded yet
+                offset += buffer.position();
+                buffer = load(offset);
+            }
+        }
+
+        int count = target.position() - off;
+        return count == 0 && finished ? -1 : count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private @NotNull ByteBuffer load(long position) throws IOException {
+        long length = Math.min(size - position, WINDOW_SIZE);
+
+        if (size >= MAPPING_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+
+        ByteBuffer heap = ByteBuffer.allocate((int) length);
+        int count;
+
+        do {
+            count = channel.read(heap, position + heap.position());
+        } while (count >= 0 && heap.hasRemaining());
+
+        return heap.flip();
+    }
+}
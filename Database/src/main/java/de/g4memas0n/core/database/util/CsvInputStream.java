@@ -0,0 +1,94 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * An input stream that lazily encodes rows as UTF-8 comma separated values.
+ * <p>
+ * Every non-null value is quoted, while null values are written as the given unquoted null token. Rows are
+ * terminated by a line feed.
+ */
+final class CsvInputStream extends InputStream {
+
+    private final Iterator<? extends Object[]> rows;
+    private final StringBuilder line;
+    private final String nullToken;
+    private byte[] buffer;
+    private int position;
+
+    /**
+     * Constructs an input stream for the given rows.
+     * @param rows the rows to encode.
+     * @param nullToken the token to write for null values.
+     */
+    CsvInputStream(@NotNull Iterator<? extends Object[]> rows, @NotNull String nullToken) {
+        this.rows = rows;
+        this.line = new StringBuilder(256);
+        this.nullToken = nullToken;
+        this.buffer = new byte[0];
+    }
+
+    @Override
+    public int read() {
+        if (position >= buffer.length && !fill()) {
+            return -1;
+        }
+
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= buffer.length && !fill()) {
+            return -1;
+        }
+
+        int length = Math.min(len, buffer.length - position);
+        System.arraycopy(buffer, position, bytes, off, length);
+        position += length;
+        return length;
+    }
+
+    private boolean fill() {
+        if (!rows.hasNext()) {
+            return false;
+        }
+
+        Object[] row = rows.next();
+        line.setLength(0);
+
+        for (int index = 0; index < row.length; index++) {
+            if (index > 0) {
+                line.append(',');
+            }
+
+            Object value = row[index];
+            if (value == null) {
+                line.append(nullToken);
+                continue;
+            }
+
+            String text = value instanceof Boolean bool ? (bool ? "1" : "0") : value.toString();
+            line.append('"');
+            for (int pos = 0; pos < text.length(); pos++) {
+                char character = text.charAt(pos);
+                if (character == '"') {
+                    line.append('"');
+                }
+                line.append(character);
+            }
+            line.append('"');
+        }
+
+        buffer = line.append('\n').toString().getBytes(StandardCharsets.UTF_8);
+        position = 0;
+        return true;
+    }
+}
@@ -0,0 +1,123 @@
+package de.g4memas0n.core.database.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A single-pass reader for comma separated values as described in RFC 4180.
+ * <p>
+ * Empty unquoted fields are read as null, while empty quoted fields are read as empty strings. Blank lines are
+ * skipped.
+ */
+final class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    private final char separator;
+    private final char[] buffer;
+    private final StringBuilder field;
+    private final List<String> fields;
+    private int position;
+    private int limit;
+
+    /**
+     * Constructs a csv reader that reads from the given reader.
+     * @param reader the reader to read from.
+     * @param separator the character separating the fields.
+     */
+    CsvReader(@NotNull Reader reader, char separator) {
+        this.reader = reader;
+        this.separator = separator;
+        this.buffer = new char[BUFFER_SIZE];
+        this.field = new StringBuilder(64);
+        this.fields = new ArrayList<>();
+    }
+
+    /**
+     * Reads the next record from the underlying reader.
+     * @return the fields of the next record, or null if the end of the input has been reached.
+     * @throws IOException if an I/O error occurs.
+     */
+    @Nullable String[] next() throws IOException {
+        int current;
+
+        do {
+            current = read();
+        } while (current == '\n' || current == '\r');
+
+        if (current < 0) {
+            return null;
+        }
+
+        fields.clear();
+
+        while (true) {
+            boolean quoted = current == '"';
+            field.setLength(0);
+
+            if (quoted) {
+                current = readQuoted();
+            }
+
+            while (current >= 0 && current != separator && current != '\n' && current != '\r') {
+                field.append((char) current);
+                current = read();
+            }
+
+            fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+
+            if (current != separator) {
+                break;
+            }
+
+            current = read();
+        }
+
+        return fields.toArray(new String[0]);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private int readQuoted() throws IOException {
+        int current;
+
+        while ((current = read()) >= 0) {
+            // An escaped quote is read as a closing and an opening quote
+            if (current == '"' && (current = read()) != '"') {
+                return current;
+            }
+
+            field.append((char) current);
+        }
+
+        return current;
+    }
+
+    private int read() throws IOException {
+        if (position >= limit) {
+            int count;
+
+            do {
+                count = reader.read(buffer, 0, buffer.length);
+            } while (count == 0);
+
+            if (count < 0) {
+                return -1;
+            }
+
+            position = 0;
+            limit = count;
+        }
+
+        return buffer[position++];
+    }
+}
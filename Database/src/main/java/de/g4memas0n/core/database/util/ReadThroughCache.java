@@ -0,0 +1,250 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A keyed read-through cache class in front of the queries of a connector.
+ * <p>
+ * Values are loaded through the given loader on a cache miss and served from memory afterwards, until they are
+ * evicted by size in least-recently-used order, expire after the given time since being loaded, or are invalidated.
+ * Concurrent lookups of the same missing key share a single load, so a hot key only borrows one pooled connection.
+ * Missing rows are cached as well, so repeated lookups of unknown keys do not hit the database either.
+ * <p>
+ * Callers that write to the cached rows must {@link #invalidate(Object) invalidate} or {@link #put(Object, Object)
+ * replace} the affected keys, otherwise the stale values are served until they expire. A load that is still running
+ * while its key is invalidated or replaced does not cache its result.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+@SuppressWarnings("unused")
+public final class ReadThroughCache<K, V> {
+
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final Map<K, Cached<V>> entries;
+    private final Connector connector;
+    private final Loader<K, V> loader;
+    private final long expireAfter;
+
+    /**
+     * Constructs a read-through cache with the given eviction settings.
+     * @param connector the connector to load missing values with.
+     * @param loader the loader to query missing values with.
+     * @param maximumSize the maximum count of cached keys.
+     * @param expireAfter the time after which loaded values expire, in milliseconds, or zero to never expire.
+     * @throws IllegalArgumentException if the given size or time is negative.
+     */
+    public ReadThroughCache(@NotNull Connector connector, @NotNull Loader<K, V> loader,
+                            long maximumSize, long expireAfter) {
+        if (maximumSize < 0 || expireAfter < 0) {
+            throw new IllegalArgumentException("size and time must not be negative");
+        }
+
+        this.connector = connector;
+        this.loader = loader;
+        this.expireAfter = TimeUnit.MILLISECONDS.toNanos(expireAfter);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(@NotNull Map.Entry<K, Cached<V>> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the value of the given key, loading it if it is not cached.
+     * @param key the key to look up.
+     * @return the value of the key, or null if there is no value for the key.
+     * @throws SQLException if a database access error occurs while loading the value.
+     */
+    public @Nullable V get(@NotNull K key) throws SQLException {
+        Cached<V> entry = lookup(key);
+        if (entry != null) {
+            hits.increment();
+            return entry.value();
+        }
+
+        misses.increment();
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, future);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            V value = load(key);
+
+            synchronized (entries) {
+                // The key was invalidated or replaced while loading, so the loaded value may already be stale
+                if (loading.remove(key, future)) {
+                    entries.put(key, new Cached<>(value, System.nanoTime()));
+                }
+            }
+
+            future.complete(value);
+            return value;
+        } catch (Throwable ex) {
+            loading.remove(key, future);
+            future.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the value of the given key, if it is cached.
+     * @param key the key to look up.
+     * @return the cached value of the key, or null if there is no cached value.
+     */
+    public @Nullable V getIfPresent(@NotNull K key) {
+        Cached<V> entry = lookup(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Replaces the cached value of the given key, usually after writing it to the database.
+     * @param key the key to replace the value for.
+     * @param value the new value of the key, or null if the row was deleted.
+     */
+    public void put(@NotNull K key, @Nullable V value) {
+        synchronized (entries) {
+            loading.remove(key);
+            entries.put(key, new Cached<>(value, System.nanoTime()));
+        }
+    }
+
+    /**
+     * Invalidates the cached value of the given key, so that the next lookup loads it again.
+     * @param key the key to invalidate.
+     */
+    public void invalidate(@NotNull K key) {
+        synchronized (entries) {
+            loading.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Invalidates all cached values.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            loading.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the approximate count of cached keys.
+     * <p>
+     * Expired values are included until they are looked up again.
+     * @return the cached key count.
+     */
+    public long size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the hit, miss and eviction counts of this cache.
+     * @return the cache statistics.
+     */
+    public @NotNull Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private @Nullable Cached<V> lookup(@NotNull K key) {
+        synchronized (entries) {
+            Cached<V> entry = entries.get(key);
+
+            if (entry != null && expireAfter > 0 && System.nanoTime() - entry.loadedAt() >= expireAfter) {
+                entries.remove(key);
+                evictions.increment();
+                return null;
+            }
+
+            return entry;
+        }
+    }
+
+    private @Nullable V load(@NotNull K key) throws SQLException {
+        Connection connection = connector.getConnection();
+
+        try {
+            return loader.load(connection, key);
+        } finally {
+            connector.closeConnection(connection);
+        }
+    }
+
+    private static <V> @Nullable V await(@NotNull CompletableFuture<V> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SQLException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+
+            throw new SQLException("Could not load value", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for value", ex);
+        }
+    }
+
+    /**
+     * A functional interface for querying a single missing value.
+     * @param <K> the type of the keys.
+     * @param <V> the type of the values.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+
+        /**
+         * Queries the value of the given key.
+         * @param connection the connection to query the value with.
+         * @param key the key to query the value for.
+         * @return the value of the key, or null if there is no value for the key.
+         * @throws SQLException if a database access error occurs.
+         */
+        @Nullable V load(@NotNull Connection connection, @NotNull K key) throws SQLException;
+    }
+
+    /**
+     * A snapshot of the statistics of a cache.
+     * @param hits the count of lookups that were served from the cache.
+     * @param misses the count of lookups that did not find a cached value.
+     * @param evictions the count of values that were evicted by size or expiry.
+     */
+    public record Stats(long hits, long misses, long evictions) { }
+
+    private record Cached<V>(@Nullable V value, long loadedAt) { }
+}
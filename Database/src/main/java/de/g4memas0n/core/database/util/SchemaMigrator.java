@@ -0,0 +1,363 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A migrator class for applying versioned .sql batch files to a database.
+ * <p>
+ * The migrator discovers all batch files named {@code V<version>__<description>.sql} in the given classpath
+ * location and applies every version that has not been recorded in the history table yet. Each version is applied
+ * in its own transaction and recorded together with the checksum of its content. Note that some databases, like
+ * mysql, implicitly commit data definition statements.
+ * <p>
+ * If versions are pending, the migrator takes an advisory lock on mysql, mariadb and postgres databases, so that
+ * multiple nodes starting at the same time do not migrate concurrently. If the schema is already up-to-date, a
+ * migration only costs a single select on the history table.
+ */
+@SuppressWarnings("unused")
+public final class SchemaMigrator {
+
+    /**
+     * Logger instance used by the schema migrator.
+     */
+    public static Logger logger = Logger.getLogger(SchemaMigrator.class.getName());
+
+    private static final Pattern FILE_PATTERN = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final ReentrantLock localLock = new ReentrantLock();
+
+    private final Connector connector;
+    private final ClassLoader loader;
+    private final String location;
+    private String table = "schema_history";
+    private int lockTimeout = 60;
+
+    /**
+     * Constructs a schema migrator for the given classpath location.
+     * @param connector the connector to migrate the database with.
+     * @param loader the class loader to discover the batch files with.
+     * @param location the classpath directory containing the batch files.
+     */
+    public SchemaMigrator(@NotNull Connector connector, @NotNull ClassLoader loader, @NotNull String location) {
+        this.connector = connector;
+        this.loader = loader;
+        this.location = location.endsWith("/") ? location.substring(0, location.length() - 1) : location;
+    }
+
+    /**
+     * Returns the name of the table recording the applied versions.
+     * @return the history table name.
+     */
+    public @NotNull String getTable() {
+        return table;
+    }
+
+    /**
+     * Sets the name of the table recording the applied versions.
+     * @param table the new history table name.
+     */
+    public void setTable(@NotNull String table) {
+        this.table = table;
+    }
+
+    /**
+     * Sets the time to wait for the advisory lock of another node, in seconds.
+     * @param timeout the new lock timeout.
+     */
+    public void setLockTimeout(int timeout) {
+        this.lockTimeout = timeout;
+    }
+
+    /**
+     * Applies all pending versions.
+     * @return the count of applied versions.
+     * @throws IllegalStateException if the checksum of an applied version has changed.
+     * @throws IOException if an I/O error occurs.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int migrate() throws IOException, SQLException {
+        Map<Long, Migration> migrations = discover();
+        if (migrations.isEmpty()) {
+            return 0;
+        }
+
+        Connection connection = connector.getConnection();
+        try {
+            if (getPending(migrations, getApplied(connection)).isEmpty()) {
+                return 0;
+            }
+
+            lock(connection);
+            try {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS " + table + " (version BIGINT NOT NULL, "
+                            + "description VARCHAR(255) NOT NULL, checksum BIGINT NOT NULL, "
+                            + "applied_at TIMESTAMP NOT NULL, PRIMARY KEY (version))");
+                }
+
+                // Another node could have applied some versions while waiting for the lock
+                List<Migration> pending = getPending(migrations, getApplied(connection));
+                for (Migration migration : pending) {
+                    apply(connection, migration);
+                }
+
+                return pending.size();
+            } finally {
+                unlock(connection);
+            }
+        } finally {
+            connector.closeConnection(connection);
+        }
+    }
+
+    private void apply(@NotNull Connection connection, @NotNull Migration migration) throws IOException, SQLException {
+        logger.info("Applying schema version " + migration.version() + ": " + migration.description());
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement();
+             Stream<String> queries = BatchReader.stream(new ByteArrayInputStream(migration.content()), escapes())) {
+            for (String query : (Iterable<String>) queries::iterator) {
+                statement.execute(query);
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table
+                    + " (version, description, checksum, applied_at) VALUES (?, ?, ?, ?)")) {
+                insert.setLong(1, migration.version());
+                insert.setString(2, migration.description());
+                insert.setLong(3, migration.checksum());
+                insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+                insert.executeUpdate();
+            }
+
+            connection.commit();
+            connection.setAutoCommit(true);
+        } catch (Throwable ex) {
+            // Auto-commit stays disabled, as enabling it would commit a transaction that was not rolled back
+            try {
+                connection.rollback();
+            } catch (SQLException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+
+            if (ex instanceof UncheckedIOException cause) {
+                throw cause.getCause();
+            }
+
+            throw ex;
+        }
+    }
+
+    private @Nullable Map<Long, Long> getApplied(@NotNull Connection connection) {
+        Map<Long, Long> applied = new HashMap<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version, checksum FROM " + table)) {
+            while (result.next()) {
+                applied.put(result.getLong(1), result.getLong(2));
+            }
+        } catch (SQLException ex) {
+            // Assume that the history table does not exist yet
+            return null;
+        }
+
+        return applied;
+    }
+
+    private @NotNull List<Migration> getPending(@NotNull Map<Long, Migration> migrations,
+                                                @Nullable Map<Long, Long> applied) {
+        if (applied == null) {
+            return new ArrayList<>(migrations.values());
+        }
+
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations.values()) {
+            Long checksum = applied.get(migration.version());
+            if (checksum == null) {
+                pending.add(migration);
+            } else if (checksum != migration.checksum()) {
+                throw new IllegalStateException("checksum mismatch for applied version " + migration.version());
+            }
+        }
+
+        return pending;
+    }
+
+    private void lock(@NotNull Connection connection) throws SQLException {
+        switch (connector.getVendorName()) {
+            case "MySQL", "MariaDB" -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+                    statement.setString(1, getLockName());
+                    statement.setInt(2, lockTimeout);
+
+                    try (ResultSet result = statement.executeQuery()) {
+                        if (!result.next() || result.getInt(1) != 1) {
+                            throw new SQLException("Could not acquire migration lock");
+                        }
+                    }
+                }
+            }
+            case "PostgreSQL" -> {
+                long deadline = System.currentTimeMillis() + lockTimeout * 1000L;
+
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+                    statement.setLong(1, getLockName().hashCode());
+
+                    while (true) {
+                        try (ResultSet result = statement.executeQuery()) {
+                            if (result.next() && result.getBoolean(1)) {
+                                return;
+                            }
+                        }
+
+                        if (System.currentTimeMillis() >= deadline) {
+                            throw new SQLException("Could not acquire migration lock");
+                        }
+
+                        try {
+                            Thread.sleep(500);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for migration lock", ex);
+                        }
+                    }
+                }
+            }
+            // Flat-file databases are only accessed by this server, so a local lock is sufficient
+            default -> localLock.lock();
+        }
+    }
+
+    private void unlock(@NotNull Connection connection) throws SQLException {
+        switch (connector.getVendorName()) {
+            case "MySQL", "MariaDB" -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                    statement.setString(1, getLockName());
+                    statement.executeQuery().close();
+                }
+            }
+            case "PostgreSQL" -> {
+                try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+                    statement.setLong(1, getLockName().hashCode());
+                    statement.executeQuery().close();
+                }
+            }
+            default -> localLock.unlock();
+        }
+    }
+
+    private boolean escapes() {
+        // MySQL and MariaDB read backslashes in string literals as escape characters by default
+        return switch (connector.getVendorName()) {
+            case "MySQL", "MariaDB" -> true;
+            default -> false;
+        };
+    }
+
+    private @NotNull String getLockName() {
+        return "migration." + table;
+    }
+
+    private @NotNull Map<Long, Migration> discover() throws IOException {
+        Map<Long, Migration> migrations = new TreeMap<>();
+        Enumeration<URL> urls = loader.getResources(location);
+
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+
+            for (String name : list(url)) {
+                Matcher matcher = FILE_PATTERN.matcher(name);
+                if (!matcher.matches()) {
+                    continue;
+                }
+
+                byte[] content;
+                try (InputStream stream = open(url, name)) {
+                    content = stream.readAllBytes();
+                }
+
+                CRC32 checksum = new CRC32();
+                checksum.update(content);
+
+                Migration migration = new Migration(Long.parseLong(matcher.group(1)),
+                        matcher.group(2).replace('_', ' '), checksum.getValue(), content);
+                if (migrations.putIfAbsent(migration.version(), migration) != null) {
+                    throw new IllegalStateException("duplicate schema version " + migration.version());
+                }
+            }
+        }
+
+        return migrations;
+    }
+
+    private static @NotNull InputStream open(@NotNull URL location, @NotNull String name) throws IOException {
+        // Read the script from the given location, as other locations on the class path may contain the same name
+        String base = location.toExternalForm();
+        URLConnection connection = new URL(base.endsWith("/") ? base + name : base + "/" + name).openConnection();
+        connection.setUseCaches(false);
+        return connection.getInputStream();
+    }
+
+    private @NotNull List<String> list(@NotNull URL url) throws IOException {
+        List<String> names = new ArrayList<>();
+
+        if (url.getProtocol().equals("file")) {
+            try (Stream<Path> files = Files.list(Path.of(url.toURI()))) {
+                files.forEach(file -> names.add(file.getFileName().toString()));
+            } catch (URISyntaxException ex) {
+                throw new IOException("invalid location " + url, ex);
+            }
+        } else if (url.getProtocol().equals("jar")) {
+            JarURLConnection connection = (JarURLConnection) url.openConnection();
+            connection.setUseCaches(false);
+
+            try (JarFile jar = connection.getJarFile()) {
+                String prefix = location + "/";
+                Enumeration<JarEntry> entries = jar.entries();
+
+                while (entries.hasMoreElements()) {
+                    String name = entries.nextElement().getName();
+                    if (name.startsWith(prefix) && name.indexOf('/', prefix.length()) < 0) {
+                        names.add(name.substring(prefix.length()));
+                    }
+                }
+            }
+        } else {
+            logger.warning("Could not list schema versions in unsupported location " + url);
+        }
+
+        return names;
+    }
+
+    private record Migration(long version, @NotNull String description, long checksum, byte[] content) { }
+}
@@ -0,0 +1,186 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.ConnectionFunction;
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import org.jetbrains.annotations.NotNull;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Logger;
+
+/**
+ * A template class that runs functions inside transactions of a connector.
+ * <p>
+ * Each function is applied to a connection with auto-commit disabled, and the transaction is committed if the
+ * function completes normally and rolled back otherwise. Transactions that fail with a transient error, like a
+ * deadlock, a serialization failure or a busy database, are retried up to the configured count of retries. Between
+ * the attempts, the template waits a random time up to an exponentially growing backoff, so that the competing
+ * transactions do not collide again. Retries are recorded in the {@link Connector#getMetrics() metrics} of the
+ * connector, if enabled.
+ * <p>
+ * As a transaction may run multiple times, functions must not have side effects outside the transaction.
+ */
+@SuppressWarnings("unused")
+public final class TransactionTemplate {
+
+    /**
+     * Logger instance used by the transaction template.
+     */
+    public static Logger logger = Logger.getLogger(TransactionTemplate.class.getName());
+
+    private final Connector connector;
+    private int maxRetries = 3;
+    private long initialBackoff = 20;
+    private long maxBackoff = 1000;
+
+    /**
+     * Constructs a transaction template for the given connector.
+     * @param connector the connector to run transactions with.
+     */
+    public TransactionTemplate(@NotNull Connector connector) {
+        this.connector = connector;
+    }
+
+    /**
+     * Sets the maximum count of retries of a failed transaction.
+     * @param retries the new maximum count of retries, or zero to disable retries.
+     * @throws IllegalArgumentException if the given count is negative.
+     */
+    public void setMaxRetries(int retries) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("retries must not be negative");
+        }
+
+        this.maxRetries = retries;
+    }
+
+    /**
+     * Sets the initial and maximum backoff between the attempts of a transaction, in milliseconds.
+     * <p>
+     * The backoff doubles with every attempt, until it reaches the maximum backoff.
+     * @param initial the new backoff before the first retry.
+     * @param maximum the new maximum backoff.
+     * @throws IllegalArgumentException if the given initial backoff is not positive or exceeds the maximum.
+     */
+    public void setBackoff(long initial, long maximum) {
+        if (initial <= 0 || initial > maximum) {
+            throw new IllegalArgumentException("initial backoff must be positive and not exceed the maximum");
+        }
+
+        this.initialBackoff = initial;
+        this.maxBackoff = maximum;
+    }
+
+    /**
+     * Applies the given function inside a transaction, retrying it on transient errors.
+     * @param function the function to apply to the connection.
+     * @param <T> the type of the result.
+     * @return the result of the function.
+     * @throws SQLException if a database access error occurs, or a transient error still occurs after all retries.
+     */
+    public <T> T execute(@NotNull ConnectionFunction<T> function) throws SQLException {
+        ConnectorMetrics metrics = connector.getMetrics();
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return attempt(function);
+            } catch (SQLException ex) {
+                if (!isRetryable(ex)) {
+                    throw ex;
+                }
+
+                if (attempt >= maxRetries) {
+                    if (metrics != null) {
+                        metrics.recordRetryFailure();
+                    }
+                    throw ex;
+                }
+
+                if (metrics != null) {
+                    metrics.recordRetry(attempt + 1);
+                }
+
+                logger.fine("Retrying transaction after transient error: " + ex.getMessage());
+            }
+
+            try {
+                // Clamp the backoff before shifting, so that large backoffs do not overflow
+                long backoff = attempt < Long.numberOfLeadingZeros(initialBackoff) - 1
+                        ? Math.min(maxBackoff, initialBackoff << attempt) : maxBackoff;
+                Thread.sleep(ThreadLocalRandom.current().nextLong(backoff) + 1);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransactionRollbackException("Interrupted while waiting to retry transaction", ex);
+            }
+        }
+    }
+
+    private <T> T attempt(@NotNull ConnectionFunction<T> function) throws SQLException {
+        Connection connection = connector.getConnection();
+
+        try {
+            connection.setAutoCommit(false);
+
+            try {
+                T result = function.apply(connection);
+                connection.commit();
+                connection.setAutoCommit(true);
+                return result;
+            } catch (Throwable ex) {
+                // Auto-commit stays disabled, as enabling it would commit a transaction that was not rolled back
+                try {
+                    connection.rollback();
+                } catch (SQLException suppressed) {
+                    ex.addSuppressed(suppressed);
+                }
+                throw ex;
+            }
+        } finally {
+            connector.closeConnection(connection);
+        }
+    }
+
+    /**
+     * Returns whether the given exception or one of its causes is a transient error for the vendor of the connector.
+     * <p>
+     * The following errors are classified as transient:
+     * <ul>
+     *     <li>MySQL and MariaDB: deadlocks (1213), lock wait timeouts (1205) and serialization failures (40001)</li>
+     *     <li>PostgreSQL: serialization failures (40001) and deadlocks (40P01)</li>
+     *     <li>SQLite: busy (5) and locked (6) databases</li>
+     *     <li>H2: deadlocks (40001), lock timeouts (50200) and concurrent updates (90131)</li>
+     *     <li>Other vendors: transaction rollbacks and serialization failures (40001)</li>
+     * </ul>
+     * @param exception the exception to classify.
+     * @return true if the transaction can be retried.
+     */
+    public boolean isRetryable(@NotNull SQLException exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException ex) {
+                for (SQLException next = ex; next != null; next = next.getNextException()) {
+                    if (isTransient(next)) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private boolean isTransient(@NotNull SQLException exception) {
+        String state = exception.getSQLState();
+        int code = exception.getErrorCode();
+
+        return switch (connector.getVendorName()) {
+            case "MySQL", "MariaDB" -> code == 1213 || code == 1205 || "40001".equals(state);
+            case "PostgreSQL" -> "40001".equals(state) || "40P01".equals(state);
+            // Mask extended result codes, like SQLITE_BUSY_SNAPSHOT, to their primary result code
+            case "SQLite" -> (code & 0xff) == 5 || (code & 0xff) == 6;
+            case "H2" -> code == 40001 || code == 50200 || code == 90131;
+            default -> exception instanceof SQLTransactionRollbackException || "40001".equals(state);
+        };
+    }
+}
@@ -0,0 +1,307 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import org.jetbrains.annotations.NotNull;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A buffer class for persisting high-frequency updates behind the callers back.
+ * <p>
+ * Updates are coalesced per key in memory and flushed periodically, or as soon as the count of pending keys reaches
+ * the flush threshold, as a single batch of the given upsert query inside one transaction. By default, a newer value
+ * replaces the pending value of the same key, but a merge function can be given to accumulate values instead, for
+ * example to sum up counter increments.
+ * <p>
+ * The buffer registers a {@link Connector#addShutdownHook(Runnable) shutdown hook} on the connector, so that pending
+ * updates are flushed one last time when the connector shuts down. If the connector does not support shutdown hooks,
+ * the buffer registers a shutdown hook on the runtime instead, which must not run after the connector shut down, so
+ * the buffer should be {@link #close() closed} explicitly in this case. If a flush fails, the affected updates are
+ * merged back into the buffer and retried with the next flush.
+ * @param <K> the type of the keys.
+ * @param <V> the type of the values.
+ */
+@SuppressWarnings("unused")
+public final class WriteBehindBuffer<K, V> {
+
+    /**
+     * Logger instance used by the write-behind buffers.
+     */
+    public static Logger logger = Logger.getLogger(WriteBehindBuffer.class.getName());
+
+    private final Map<K, V> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final Connector connector;
+    private final String query;
+    private final Binder<K, V> binder;
+    private final BinaryOperator<V> merger;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledFuture<?> task;
+    private final Thread hook;
+    private int threshold = 1000;
+    private boolean closed;
+
+    /**
+     * Constructs a write-behind buffer, in which newer values replace pending values of the same key.
+     * @param connector the connector to flush the updates with.
+     * @param query the parameterized upsert query to flush each update with.
+     * @param binder the binder to set the query parameters with.
+     * @param interval the interval between periodic flushes, in milliseconds.
+     */
+    public WriteBehindBuffer(@NotNull Connector connector, @NotNull String query, @NotNull Binder<K, V> binder,
+                             long interval) {
+        this(connector, query, binder, (pending, value) -> value, interval);
+    }
+
+    /**
+     * Constructs a write-behind buffer, in which values are merged with pending values of the same key.
+     * @param connector the connector to flush the updates with.
+     * @param query the parameterized upsert query to flush each update with.
+     * @param binder the binder to set the query parameters with.
+     * @param merger the function to merge a pending value with a newer value.
+     * @param interval the interval between periodic flushes, in milliseconds.
+     * @throws IllegalArgumentException if the given interval is not positive.
+     */
+    public WriteBehindBuffer(@NotNull Connector connector, @NotNull String query, @NotNull Binder<K, V> binder,
+                             @NotNull BinaryOperator<V> merger, long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+
+        this.connector = connector;
+        this.query = query;
+        this.binder = binder;
+        this.merger = merger;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Write Behind Buffer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.task = scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+
+        if (connector.supportsShutdownHooks()) {
+            this.hook = null;
+            this.connector.addShutdownHook(this::close);
+        } else {
+            this.hook = new Thread(this::close, "Write Behind Buffer Shutdown");
+            Runtime.getRuntime().addShutdownHook(hook);
+        }
+    }
+
+    /**
+     * Returns the count of pending keys that triggers an immediate flush.
+     * @return the flush threshold.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets the count of pending keys that triggers an immediate flush.
+     * @param threshold the new flush threshold.
+     * @throws IllegalArgumentException if the given threshold is not positive.
+     */
+    public void setThreshold(int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive");
+        }
+
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the count of keys with pending updates.
+     * @return the pending key count.
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Buffers the given update, merging it with a pending update of the same key.
+     * @param key the key of the update.
+     * @param value the value of the update.
+     * @throws IllegalStateException if the buffer is already closed.
+     */
+    public void put(@NotNull K key, @NotNull V value) {
+        // Updates hold the read lock, so that closing waits for them and the final flush includes them
+        closeLock.readLock().lock();
+
+        try {
+            if (closed) {
+                throw new IllegalStateException("buffer already closed");
+            }
+
+            pending.merge(key, value, merger);
+
+            if (pending.size() >= threshold && scheduled.compareAndSet(false, true)) {
+                scheduler.execute(() -> {
+                    scheduled.set(false);
+                    flushQuietly();
+                });
+            }
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes all pending updates as a single batch inside one transaction.
+     * <p>
+     * If the flush fails, the drained updates are merged back into the buffer, so that they are retried with the next
+     * flush, unless newer updates of the same keys replaced them.
+     * @return the count of flushed updates.
+     * @throws SQLException if a database access error occurs.
+     */
+    public int flush() throws SQLException {
+        synchronized (flushLock) {
+            List<Map.Entry<K, V>> updates = drain();
+            if (updates.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                Connection connection = connector.getConnection();
+
+                try {
+                    write(connection, updates);
+                } finally {
+                    connector.closeConnection(connection);
+                }
+            } catch (Throwable ex) {
+                for (Map.Entry<K, V> update : updates) {
+                    // The drained value is older than any value buffered in the meantime
+                    pending.merge(update.getKey(), update.getValue(), (newer, older) -> merger.apply(older, newer));
+                }
+
+                throw ex;
+            }
+
+            return updates.size();
+        }
+    }
+
+    /**
+     * Stops the periodic flushes and flushes all pending updates one last time.
+     * <p>
+     * Updates buffered after this method was called are rejected. This method is called automatically when the
+     * connector shuts down.
+     */
+    public void close() {
+        closeLock.writeLock().lock();
+
+        try {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+
+        if (hook != null && Thread.currentThread() != hook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(hook);
+            } catch (IllegalStateException ignored) {
+                // The runtime is already shutting down
+            }
+        }
+
+        task.cancel(false);
+        scheduler.shutdown();
+
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                logger.warning("Timed out while waiting for running flush");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            flush();
+        } catch (SQLException ex) {
+            logger.log(Level.SEVERE, "Could not flush " + pending.size() + " pending updates on close", ex);
+        }
+    }
+
+    private @NotNull List<Map.Entry<K, V>> drain() {
+        List<Map.Entry<K, V>> updates = new ArrayList<>(pending.size());
+
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value != null) {
+                updates.add(Map.entry(key, value));
+            }
+        }
+
+        return updates;
+    }
+
+    private void write(@NotNull Connection connection, @NotNull List<Map.Entry<K, V>> updates) throws SQLException {
+        connection.setAutoCommit(false);
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (Map.Entry<K, V> update : updates) {
+                binder.bind(statement, update.getKey(), update.getValue());
+                statement.addBatch();
+            }
+
+            statement.executeBatch();
+            connection.commit();
+            connection.setAutoCommit(true);
+        } catch (Throwable ex) {
+            // Auto-commit stays disabled, as enabling it would commit a transaction that was not rolled back
+            try {
+                connection.rollback();
+            } catch (SQLException suppressed) {
+                ex.addSuppressed(suppressed);
+            }
+            throw ex;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException ex) {
+            logger.log(Level.WARNING, "Could not flush pending updates, retrying with next flush", ex);
+        }
+    }
+
+    /**
+     * A functional interface for setting the parameters of the upsert query for a single update.
+     * @param <K> the type of the keys.
+     * @param <V> the type of the values.
+     */
+    @FunctionalInterface
+    public interface Binder<K, V> {
+
+        /**
+         * Sets the query parameters of the given statement for the given update.
+         * @param statement the prepared upsert statement.
+         * @param key the key of the update.
+         * @param value the value of the update.
+         * @throws SQLException if a database access error occurs.
+         */
+        void bind(@NotNull PreparedStatement statement, @NotNull K key, @NotNull V value) throws SQLException;
+    }
+}
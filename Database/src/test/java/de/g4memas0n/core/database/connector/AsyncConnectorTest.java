@@ -0,0 +1,150 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class AsyncConnectorTest {
+
+    @Test
+    public void limitConcurrencyTest() throws Exception {
+        StubConnector delegate = new StubConnector("delegate");
+        AsyncConnector connector = new AsyncConnector(delegate, 2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+
+        try {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int index = 0; index < 8; index++) {
+                int value = index;
+                futures.add(connector.supply(connection -> {
+                    maximum.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(25);
+                    } catch (InterruptedException ex) {
+                        throw new SQLException(ex);
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                    return value;
+                }));
+            }
+
+            for (int index = 0; index < futures.size(); index++) {
+                Assert.assertEquals("unexpected result", index, (int) futures.get(index).get(5, TimeUnit.SECONDS));
+            }
+
+            Assert.assertEquals("unexpected concurrency", 2, maximum.get());
+            Assert.assertEquals("unexpected connections", 8, delegate.attempts.get());
+        } finally {
+            connector.shutdown();
+        }
+    }
+
+    @Test
+    public void rollbackTransactionTest() throws Exception {
+        Path directory = Files.createTempDirectory("async");
+        AsyncConnector connector = new AsyncConnector(new SQLiteConnector(directory.resolve("test.db")));
+        connector.configure(new Properties());
+
+        try {
+            connector.update("CREATE TABLE test (id INTEGER PRIMARY KEY)").get(5, TimeUnit.SECONDS);
+
+            CompletableFuture<Integer> failed = connector.transaction(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("INSERT INTO test (id) VALUES (1)");
+                    return statement.executeUpdate("INSERT INTO missing (id) VALUES (2)");
+                }
+            });
+
+            try {
+                failed.join();
+                Assert.fail("expected failure");
+            } catch (CompletionException ex) {
+                Assert.assertTrue("unexpected cause", ex.getCause() instanceof SQLException);
+            }
+
+            Assert.assertEquals("transaction not rolled back", 0, (int) count(connector));
+
+            CompletableFuture<Boolean> committed = connector.transaction(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("INSERT INTO test (id) VALUES (3)");
+                }
+                return connection.getAutoCommit();
+            });
+
+            Assert.assertFalse("auto-commit enabled", committed.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals("transaction not committed", 1, (int) count(connector));
+            Assert.assertTrue("auto-commit not restored",
+                    connector.supply(Connection::getAutoCommit).get(5, TimeUnit.SECONDS));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void drainBeforeShutdownTest() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        StubConnector delegate = new StubConnector("delegate") {
+            @Override
+            public void shutdown() {
+                events.add("shutdown");
+                super.shutdown();
+            }
+        };
+        AsyncConnector connector = new AsyncConnector(delegate, 2);
+        CountDownLatch started = new CountDownLatch(2);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int index = 0; index < 2; index++) {
+            futures.add(connector.supply(connection -> {
+                started.countDown();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException ex) {
+                    throw new SQLException(ex);
+                }
+                events.add("operation");
+                return null;
+            }));
+        }
+
+        Assert.assertTrue("operations not started", started.await(5, TimeUnit.SECONDS));
+        connector.shutdown();
+
+        Assert.assertEquals("unexpected order", List.of("operation", "operation", "shutdown"), events);
+        for (CompletableFuture<Void> future : futures) {
+            Assert.assertTrue("operation not completed", future.isDone() && !future.isCompletedExceptionally());
+        }
+    }
+
+    private static Integer count(AsyncConnector connector) throws Exception {
+        return connector.query("SELECT COUNT(*) FROM test", result -> result.next() ? result.getInt(1) : 0)
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class FailoverConnectorTest {
+
+    @Test
+    public void openAfterFailuresTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        FailoverConnector connector = new FailoverConnector(primary);
+        connector.setFailureThreshold(2);
+        primary.available = false;
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                connector.getConnection();
+                Assert.fail("expected failure");
+            } catch (SQLException ex) {
+                Assert.assertEquals("unexpected state", attempt == 0 ? FailoverConnector.State.CLOSED
+                        : FailoverConnector.State.OPEN, connector.getState());
+            }
+        }
+
+        try {
+            connector.getConnection();
+            Assert.fail("expected fast failure");
+        } catch (SQLTransientConnectionException ex) {
+            Assert.assertEquals("primary attempted while open", 2, primary.attempts.get());
+        }
+    }
+
+    @Test
+    public void closeAfterSuccessfulProbeTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        FailoverConnector connector = new FailoverConnector(primary);
+        connector.setFailureThreshold(1);
+        connector.setOpenTimeout(50);
+        primary.available = false;
+
+        try {
+            connector.getConnection();
+            Assert.fail("expected failure");
+        } catch (SQLException ex) {
+            Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+        }
+
+        primary.available = true;
+        Thread.sleep(100);
+
+        Connection connection = connector.getConnection();
+        Assert.assertEquals("unexpected connection", "primary", connection.toString());
+        Assert.assertEquals("unexpected state", FailoverConnector.State.CLOSED, connector.getState());
+    }
+
+    @Test
+    public void reopenAfterFailedProbeTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        StubConnector secondary = new StubConnector("secondary");
+        FailoverConnector connector = new FailoverConnector(primary, secondary);
+        connector.setFailureThreshold(1);
+        connector.setOpenTimeout(50);
+        primary.available = false;
+
+        Assert.assertEquals("unexpected connection", "secondary", connector.getConnection().toString());
+        Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+        Assert.assertEquals("unexpected connection", "secondary", connector.getConnection().toString());
+        Assert.assertEquals("primary attempted while open", 1, primary.attempts.get());
+
+        Thread.sleep(100);
+
+        Assert.assertEquals("unexpected connection", "secondary", connector.getConnection().toString());
+        Assert.assertEquals("probe not attempted", 2, primary.attempts.get());
+        Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+
+        // The failed probe opened the circuit again, so the open timeout starts over
+        Assert.assertEquals("unexpected connection", "secondary", connector.getConnection().toString());
+        Assert.assertEquals("primary attempted while open", 2, primary.attempts.get());
+    }
+
+    @Test
+    public void reopenAfterProbeRuntimeExceptionTest() throws Exception {
+        AtomicBoolean broken = new AtomicBoolean();
+        StubConnector primary = new StubConnector("primary") {
+            @Override
+            public @NotNull Connection getConnection() throws SQLException {
+                if (broken.get()) {
+                    attempts.incrementAndGet();
+                    throw new IllegalStateException("pool closed");
+                }
+                return super.getConnection();
+            }
+        };
+        FailoverConnector connector = new FailoverConnector(primary);
+        connector.setFailureThreshold(1);
+        connector.setOpenTimeout(50);
+        primary.available = false;
+
+        try {
+            connector.getConnection();
+            Assert.fail("expected failure");
+        } catch (SQLException ex) {
+            Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+        }
+
+        primary.available = true;
+        broken.set(true);
+        Thread.sleep(100);
+
+        try {
+            connector.getConnection();
+            Assert.fail("expected runtime exception");
+        } catch (IllegalStateException ex) {
+            Assert.assertEquals("probe not attempted", 2, primary.attempts.get());
+            Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+        }
+
+        broken.set(false);
+        Thread.sleep(100);
+
+        Assert.assertEquals("unexpected connection", "primary", connector.getConnection().toString());
+        Assert.assertEquals("unexpected state", FailoverConnector.State.CLOSED, connector.getState());
+    }
+
+    @Test
+    public void keepOpenAfterLateSuccessTest() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubConnector primary = new StubConnector("primary") {
+            @Override
+            public @NotNull Connection getConnection() throws SQLException {
+                if (Thread.currentThread().getName().equals("late")) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        throw new SQLException(ex);
+                    }
+                }
+                return super.getConnection();
+            }
+        };
+        FailoverConnector connector = new FailoverConnector(primary);
+        connector.setFailureThreshold(1);
+
+        AtomicReference<Object> result = new AtomicReference<>();
+        Thread late = new Thread(() -> {
+            try {
+                result.set(connector.getConnection());
+            } catch (SQLException ex) {
+                result.set(ex);
+            }
+        }, "late");
+        late.start();
+        Assert.assertTrue("late call not started", entered.await(5, TimeUnit.SECONDS));
+
+        primary.available = false;
+        try {
+            connector.getConnection();
+            Assert.fail("expected failure");
+        } catch (SQLException ex) {
+            Assert.assertEquals("unexpected state", FailoverConnector.State.OPEN, connector.getState());
+        }
+
+        // The call that started before the circuit opened succeeds afterwards
+        primary.available = true;
+        release.countDown();
+        late.join(5000);
+
+        Assert.assertTrue("unexpected result", result.get() instanceof Connection);
+        Assert.assertEquals("late success closed circuit", FailoverConnector.State.OPEN, connector.getState());
+    }
+}
@@ -0,0 +1,53 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class H2ConnectorTest {
+
+    @Test
+    public void backupWithCredentialsTest() throws Exception {
+        Path directory = Files.createTempDirectory("h2");
+        H2Connector connector = new H2Connector(directory.resolve("test"));
+        connector.configure(createProperties());
+
+        try {
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE test (id INT PRIMARY KEY)");
+                statement.execute("INSERT INTO test (id) VALUES (1), (2), (3)");
+            }
+
+            Path target = directory.resolve("backup.zip");
+            connector.backup(target).get(30, TimeUnit.SECONDS);
+            Assert.assertTrue("missing backup", Files.size(target) > 0);
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static Properties createProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("username", "owner");
+        properties.setProperty("password", "secret");
+        return properties;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.g4memas0n.core.database.connector;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.Assert;
+import org.junit.Test;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+public class MemoryConnectorTest {
+
+    @Test
+    public void sqliteSurvivesEvictionTest() throws Exception {
+        survivesEvictionTest(() -> new SQLiteMemoryConnector("sqlite-memory-test"),
+                "SELECT COUNT(*) FROM sqlite_master WHERE name = 'test'");
+    }
+
+    @Test
+    public void h2SurvivesEvictionTest() throws Exception {
+        survivesEvictionTest(() -> new H2MemoryConnector("h2-memory-test"),
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TEST'");
+    }
+
+    @Test
+    public void shutdownUnconfiguredTest() {
+        new SQLiteMemoryConnector("unconfigured").shutdown();
+        new H2MemoryConnector("unconfigured").shutdown();
+    }
+
+    @Test
+    public void h2ShutdownWithCredentialsTest() throws Exception {
+        Properties properties = createProperties();
+        properties.setProperty("username", "owner");
+        properties.setProperty("password", "secret");
+
+        H2MemoryConnector connector = new H2MemoryConnector("h2-credentials-test");
+        connector.configure(properties);
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE test (id INT PRIMARY KEY)");
+        } finally {
+            connector.shutdown();
+        }
+
+        // The database was released, so it is created again without the credentials
+        H2MemoryConnector reopened = new H2MemoryConnector("h2-credentials-test");
+        reopened.configure(createProperties());
+
+        try {
+            Assert.assertEquals("database survived shutdown", 0, count(reopened,
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'TEST'"));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    private void survivesEvictionTest(Supplier<HikariConnector> factory, String tableQuery) throws Exception {
+        HikariConnector connector = factory.get();
+        connector.configure(createProperties());
+
+        try {
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY)");
+                statement.execute("INSERT INTO test (id) VALUES (1), (2), (3)");
+            }
+
+            // Close all pooled connections, the database must survive without them
+            HikariPoolMXBean pool = connector.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            pool.softEvictConnections();
+            for (int wait = 0; pool.getTotalConnections() > 0 && wait < 100; wait++) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals("unexpected pooled connections", 0, pool.getTotalConnections());
+
+            Assert.assertEquals("unexpected row count", 3, count(connector, "SELECT COUNT(*) FROM test"));
+        } finally {
+            connector.shutdown();
+        }
+
+        HikariConnector reopened = factory.get();
+        reopened.configure(createProperties());
+
+        try {
+            Assert.assertEquals("database survived shutdown", 0, count(reopened, tableQuery));
+        } finally {
+            reopened.shutdown();
+        }
+    }
+
+    private static Properties createProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("minimumIdle", "0");
+        properties.setProperty("idleTimeout", "10000");
+        return properties;
+    }
+
+    private static int count(Connector connector, String query) throws SQLException {
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(query)) {
+            Assert.assertTrue("missing count", result.next());
+            return result.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.sql.Connection;
+import java.util.List;
+
+public class RoutingConnectorTest {
+
+    @Test
+    public void balanceReadsTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        RoutingConnector connector = new RoutingConnector(primary,
+                List.of(new StubConnector("first"), new StubConnector("second")));
+
+        Assert.assertEquals("unexpected replica", "first", connector.getReadConnection().toString());
+        Assert.assertEquals("unexpected replica", "second", connector.getReadConnection().toString());
+        Assert.assertEquals("unexpected replica", "first", connector.getReadConnection().toString());
+        Assert.assertEquals("unexpected primary", "primary", connector.getWriteConnection().toString());
+    }
+
+    @Test
+    public void fallbackToPrimaryTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        StubConnector replica = new StubConnector("replica");
+        RoutingConnector connector = new RoutingConnector(primary, List.of(replica));
+        replica.available = false;
+
+        Assert.assertEquals("unexpected fallback", "primary", connector.getReadConnection().toString());
+        Assert.assertTrue("fallback not read-only", primary.calls.contains("setReadOnly"));
+    }
+
+    @Test
+    public void routeOnFirstUseTest() throws Exception {
+        StubConnector primary = new StubConnector("primary");
+        StubConnector replica = new StubConnector("replica");
+        RoutingConnector connector = new RoutingConnector(primary, List.of(replica));
+
+        Connection unused = connector.getConnection();
+        unused.setReadOnly(true);
+        unused.close();
+        Assert.assertEquals("connection borrowed before use", 0, primary.attempts.get() + replica.attempts.get());
+
+        Connection read = connector.getConnection();
+        read.setReadOnly(true);
+        read.isValid(1);
+        Assert.assertEquals("unexpected route", "replica", read.toString());
+
+        Connection write = connector.getConnection();
+        write.setAutoCommit(false);
+        write.isValid(1);
+        Assert.assertEquals("unexpected route", "primary", write.toString());
+        Assert.assertTrue("auto-commit not applied", primary.calls.contains("setAutoCommit"));
+    }
+}
@@ -0,0 +1,107 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class SQLiteBackupTest {
+
+    @Test
+    public void backupRollbackJournalTest() throws Exception {
+        backupWhileWritingTest("DELETE");
+    }
+
+    @Test
+    public void backupWriteAheadLogTest() throws Exception {
+        backupWhileWritingTest("WAL");
+    }
+
+    private void backupWhileWritingTest(String journal) throws Exception {
+        Path directory = Files.createTempDirectory("backup");
+        Properties properties = new Properties();
+        properties.setProperty("journal_mode", journal);
+
+        SQLiteConnector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(properties);
+
+        try {
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+            }
+
+            AtomicBoolean running = new AtomicBoolean(true);
+            AtomicInteger written = new AtomicInteger();
+            CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+                while (running.get()) {
+                    try (Connection connection = connector.getConnection();
+                         PreparedStatement statement = connection.prepareStatement(
+                                 "INSERT INTO test (name) VALUES (?)")) {
+                        statement.setString(1, "row " + written.get());
+                        statement.executeUpdate();
+                        written.incrementAndGet();
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }
+            });
+
+            while (written.get() < 100) {
+                Thread.sleep(1);
+            }
+
+            Path target = directory.resolve("backup.db");
+            connector.backup(target).get(30, TimeUnit.SECONDS);
+            running.set(false);
+            writer.get(30, TimeUnit.SECONDS);
+
+            SQLiteConnector restored = new SQLiteConnector(target);
+            restored.configure(new Properties());
+
+            try (Connection connection = restored.getConnection();
+                 Statement statement = connection.createStatement()) {
+                try (ResultSet result = statement.executeQuery("PRAGMA integrity_check")) {
+                    Assert.assertTrue("missing integrity check", result.next());
+                    Assert.assertEquals("corrupted backup", "ok", result.getString(1));
+                }
+
+                try (ResultSet result = statement.executeQuery("SELECT COUNT(*) FROM test")) {
+                    Assert.assertTrue("missing count", result.next());
+                    int count = result.getInt(1);
+                    Assert.assertTrue("unexpected count " + count, count >= 100 && count <= written.get());
+                }
+            } finally {
+                restored.shutdown();
+            }
+
+            try (Stream<Path> files = Files.list(directory)) {
+                Assert.assertTrue("temporary file left", files.noneMatch(file -> file.toString().endsWith(".tmp")));
+            }
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+public class SQLiteConnectorTest {
+
+    @Test
+    public void defaultProfileTest() throws Exception {
+        Properties properties = new Properties();
+
+        configureTest(properties, connection -> {
+            Assert.assertEquals("unexpected encoding", "UTF-8", pragma(connection, "encoding"));
+            Assert.assertEquals("unexpected journal mode", "delete", pragma(connection, "journal_mode"));
+            Assert.assertEquals("unexpected cache size", "-16384", pragma(connection, "cache_size"));
+            Assert.assertEquals("unexpected busy timeout", "5000", pragma(connection, "busy_timeout"));
+        });
+    }
+
+    @Test
+    public void durableProfileTest() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("profile", "durable");
+
+        configureTest(properties, connection -> {
+            Assert.assertEquals("unexpected journal mode", "delete", pragma(connection, "journal_mode"));
+            // Full synchronous mode
+            Assert.assertEquals("unexpected synchronous mode", "2", pragma(connection, "synchronous"));
+        });
+    }
+
+    @Test
+    public void balancedProfileTest() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("profile", "BALANCED");
+        properties.setProperty("journal_mode", "WAL");
+
+        configureTest(properties, connection -> {
+            Assert.assertEquals("unexpected journal mode", "wal", pragma(connection, "journal_mode"));
+            // Normal synchronous mode
+            Assert.assertEquals("unexpected synchronous mode", "1", pragma(connection, "synchronous"));
+            Assert.assertEquals("unexpected temp store", "2", pragma(connection, "temp_store"));
+        });
+    }
+
+    @Test
+    public void throughputProfileTest() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("profile", "throughput");
+        properties.setProperty("dataSource.cache_size", "-1024");
+
+        configureTest(properties, connection -> {
+            Assert.assertEquals("unexpected journal mode", "wal", pragma(connection, "journal_mode"));
+            // No synchronous mode
+            Assert.assertEquals("unexpected synchronous mode", "0", pragma(connection, "synchronous"));
+            Assert.assertEquals("override not respected", "-1024", pragma(connection, "cache_size"));
+        });
+    }
+
+    @Test
+    public void dedicatedConnectionTest() throws Exception {
+        Properties properties = new Properties();
+        properties.setProperty("busy_timeout", "1234");
+        Path directory = Files.createTempDirectory("sqlite");
+        SQLiteConnector connector = new SQLiteConnector(directory.resolve("test.db"));
+
+        try {
+            connector.configure(properties);
+
+            try (Connection connection = connector.openConnection()) {
+                Assert.assertEquals("unexpected busy timeout", "1234", pragma(connection, "busy_timeout"));
+                Assert.assertEquals("unexpected temp store", "2", pragma(connection, "temp_store"));
+            }
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownProfileTest() {
+        Properties properties = new Properties();
+        properties.setProperty("profile", "unknown");
+
+        new SQLiteConnector(Path.of("unknown.db")).configure(properties);
+    }
+
+    private void configureTest(Properties properties, ConnectionCheck check) throws Exception {
+        Path directory = Files.createTempDirectory("sqlite");
+        SQLiteConnector connector = new SQLiteConnector(directory.resolve("test.db"));
+
+        try {
+            connector.configure(properties);
+
+            try (Connection connection = connector.getConnection()) {
+                check.accept(connection);
+            }
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static String pragma(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("PRAGMA " + name)) {
+            Assert.assertTrue("missing pragma " + name, result.next());
+            return result.getString(1);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionCheck {
+        void accept(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,158 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class SQLiteWALConnectorTest {
+
+    @Test
+    public void readOnlyReadersTest() throws Exception {
+        connectorTest(connector -> {
+            try (Connection connection = connector.getReadConnection();
+                 Statement statement = connection.createStatement()) {
+                Assert.assertEquals("reader not query only", 1, count(statement, "PRAGMA query_only"));
+
+                try {
+                    statement.executeUpdate("INSERT INTO counter (id, value) VALUES (2, 0)");
+                    Assert.fail("reader wrote to database");
+                } catch (SQLException expected) {
+                    // The write must be rejected, as the connection is read-only
+                }
+            }
+
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                Assert.assertEquals("writer query only", 0, count(statement, "PRAGMA query_only"));
+                statement.executeUpdate("INSERT INTO counter (id, value) VALUES (2, 0)");
+            }
+
+            try (Connection connection = connector.getReadConnection();
+                 Statement statement = connection.createStatement()) {
+                Assert.assertEquals("unexpected row count", 2, count(statement, "SELECT COUNT(*) FROM counter"));
+            }
+        });
+    }
+
+    @Test
+    public void serializeWritesTest() throws Exception {
+        connectorTest(connector -> {
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+            // Every write reads and increments the counter, which only adds up if the writes are serialized
+            for (int index = 0; index < 50; index++) {
+                futures.add(connector.submit(connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        int value = count(statement, "SELECT value FROM counter WHERE id = 1");
+                        return statement.executeUpdate("UPDATE counter SET value = " + (value + 1) + " WHERE id = 1");
+                    }
+                }));
+            }
+
+            for (CompletableFuture<Integer> future : futures) {
+                Assert.assertEquals("unexpected update count", 1, (int) future.get(30, TimeUnit.SECONDS));
+            }
+
+            Assert.assertEquals("lost update", 50, value(connector));
+        });
+    }
+
+    @Test
+    public void rollbackSubmitTest() throws Exception {
+        connectorTest(connector -> {
+            CompletableFuture<Integer> failed = connector.submit(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("UPDATE counter SET value = 10 WHERE id = 1");
+                }
+                throw new SQLException("failed");
+            });
+
+            try {
+                failed.get(30, TimeUnit.SECONDS);
+                Assert.fail("expected failure");
+            } catch (ExecutionException ex) {
+                Assert.assertTrue("unexpected cause " + ex.getCause(), ex.getCause() instanceof SQLException);
+            }
+            Assert.assertEquals("update not rolled back", 0, value(connector));
+
+            CompletableFuture<Integer> error = connector.submit(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("UPDATE counter SET value = 20 WHERE id = 1");
+                }
+                throw new AssertionError("failed");
+            });
+
+            try {
+                error.get(30, TimeUnit.SECONDS);
+                Assert.fail("expected failure");
+            } catch (ExecutionException ex) {
+                Assert.assertTrue("unexpected cause " + ex.getCause(), ex.getCause() instanceof AssertionError);
+            }
+            Assert.assertEquals("update not rolled back", 0, value(connector));
+
+            try (Connection connection = connector.getWriteConnection()) {
+                Assert.assertTrue("auto-commit not restored", connection.getAutoCommit());
+            }
+        });
+    }
+
+    private void connectorTest(ConnectorCheck check) throws Exception {
+        Path directory = Files.createTempDirectory("sqlite");
+        SQLiteWALConnector connector = new SQLiteWALConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        try {
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE counter (id INTEGER PRIMARY KEY, value INTEGER NOT NULL)");
+                statement.execute("INSERT INTO counter (id, value) VALUES (1, 0)");
+            }
+
+            check.accept(connector);
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static int value(SQLiteWALConnector connector) throws SQLException {
+        try (Connection connection = connector.getReadConnection();
+             Statement statement = connection.createStatement()) {
+            return count(statement, "SELECT value FROM counter WHERE id = 1");
+        }
+    }
+
+    private static int count(Statement statement, String query) throws SQLException {
+        try (ResultSet result = statement.executeQuery(query)) {
+            Assert.assertTrue("missing result", result.next());
+            return result.getInt(1);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectorCheck {
+        void accept(SQLiteWALConnector connector) throws Exception;
+    }
+}
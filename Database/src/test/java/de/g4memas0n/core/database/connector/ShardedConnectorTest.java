@@ -0,0 +1,84 @@
+package de.g4memas0n.core.database.connector;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+public class ShardedConnectorTest {
+
+    @Test
+    public void routeKeysConsistentlyTest() {
+        Map<String, Connector> shards = new HashMap<>();
+        shards.put("first", new SQLiteConnector(Path.of("first.db")));
+        shards.put("second", new SQLiteConnector(Path.of("second.db")));
+        shards.put("third", new SQLiteConnector(Path.of("third.db")));
+
+        ShardedConnector connector = new ShardedConnector(shards);
+        Map<UUID, String> routes = new HashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int index = 0; index < 30000; index++) {
+            UUID key = UUID.randomUUID();
+            String shard = connector.getShard(key);
+
+            Assert.assertEquals("unexpected route", shard, connector.getShard(key));
+            routes.put(key, shard);
+            counts.merge(shard, 1, Integer::sum);
+        }
+
+        for (String shard : shards.keySet()) {
+            int count = counts.getOrDefault(shard, 0);
+            Assert.assertTrue("unbalanced shard " + shard + ": " + count, count > 7000 && count < 13000);
+        }
+
+        connector.addShard("fourth", new SQLiteConnector(Path.of("fourth.db")));
+        int moved = 0;
+
+        for (Map.Entry<UUID, String> route : routes.entrySet()) {
+            String shard = connector.getShard(route.getKey());
+            if (!shard.equals(route.getValue())) {
+                Assert.assertEquals("unexpected move", "fourth", shard);
+                moved++;
+            }
+        }
+
+        Assert.assertTrue("unexpected move count: " + moved, moved > 4000 && moved < 11000);
+    }
+
+    @Test
+    public void normalizeKeysTest() {
+        UUID uuid = UUID.randomUUID();
+        byte[] bytes = ByteBuffer.allocate(16).putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits()).array();
+
+        Assert.assertEquals("unexpected integer", "42", ShardedConnector.normalize(42));
+        Assert.assertEquals("unexpected long", "42", ShardedConnector.normalize(42L));
+        Assert.assertEquals("unexpected decimal", "42", ShardedConnector.normalize(new BigDecimal("42.00")));
+        Assert.assertEquals("unexpected zero", "0", ShardedConnector.normalize(new BigDecimal("0.0")));
+        Assert.assertEquals("unexpected bytes", uuid.toString(), ShardedConnector.normalize(bytes));
+        Assert.assertEquals("unexpected uuid", uuid.toString(), ShardedConnector.normalize(uuid));
+    }
+
+    @Test(expected = SQLFeatureNotSupportedException.class)
+    public void rejectWithoutDefaultShardTest() throws SQLException {
+        Map<String, Connector> shards = new HashMap<>();
+        shards.put("first", new SQLiteConnector(Path.of("first.db")));
+
+        new ShardedConnector(shards).getConnection();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectUnknownDefaultShardTest() {
+        Map<String, Connector> shards = new HashMap<>();
+        shards.put("first", new SQLiteConnector(Path.of("first.db")));
+
+        new ShardedConnector(shards).setDefaultShard("second");
+    }
+}
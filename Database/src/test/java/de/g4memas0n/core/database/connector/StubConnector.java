@@ -0,0 +1,60 @@
+package de.g4memas0n.core.database.connector;
+
+import org.jetbrains.annotations.NotNull;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connector for tests, that hands out connections without a database and records the calls on them.
+ */
+class StubConnector extends HikariConnector {
+
+    final List<String> calls = new CopyOnWriteArrayList<>();
+    final AtomicInteger attempts = new AtomicInteger();
+    private final String name;
+    volatile boolean available = true;
+
+    StubConnector(@NotNull String name) {
+        this.name = name;
+    }
+
+    @Override
+    public @NotNull String getVendorName() {
+        return "Stub";
+    }
+
+    @Override
+    public void configure(@NotNull Properties properties) { }
+
+    @Override
+    public void shutdown() {
+        runShutdownHooks();
+    }
+
+    @Override
+    public @NotNull Connection getConnection() throws SQLException {
+        attempts.incrementAndGet();
+        if (!available) {
+            throw new SQLException(name + " not available");
+        }
+
+        return (Connection) Proxy.newProxyInstance(StubConnector.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    calls.add(method.getName());
+
+                    return switch (method.getName()) {
+                        case "toString" -> name;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "isValid", "getAutoCommit" -> true;
+                        default -> method.getReturnType() == boolean.class ? false
+                                : method.getReturnType() == int.class ? 0 : null;
+                    };
+                });
+    }
+}
@@ -0,0 +1,53 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+public class InstrumentedConnectionTest {
+
+    @Test
+    public void recordBatchSizeTest() throws Exception {
+        SlowQueryLog log = new SlowQueryLog(0, 10);
+        Connection connection = InstrumentedConnection.wrap(stub(Connection.class), null, log);
+
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO test VALUES (?)")) {
+            for (int row = 0; row < 3; row++) {
+                statement.setInt(1, row);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+
+            statement.setInt(1, 42);
+            statement.executeUpdate();
+        }
+
+        List<SlowQueryLog.Entry> entries = log.getEntries();
+        Assert.assertEquals("unexpected entry count", 2, entries.size());
+        Assert.assertEquals("unexpected batch size", 3, entries.get(0).batch());
+        Assert.assertTrue("unexpected batch parameters", entries.get(0).parameters().isEmpty());
+        Assert.assertEquals("unexpected batch size", 0, entries.get(1).batch());
+        Assert.assertEquals("unexpected parameters", List.of(42), entries.get(1).parameters());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Class<?> result = method.getReturnType();
+
+            if (result == PreparedStatement.class) {
+                return stub(PreparedStatement.class);
+            } else if (result == int[].class) {
+                return new int[0];
+            } else if (result == boolean.class) {
+                return false;
+            } else if (result == int.class) {
+                return 0;
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.concurrent.TimeUnit;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void recordPercentilesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 10000; value++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(value));
+        }
+
+        Assert.assertEquals("unexpected count", 10000, histogram.getCount());
+        Assert.assertEquals("unexpected mean", 5000.5, histogram.getMean(TimeUnit.MICROSECONDS), 0.001);
+        Assert.assertEquals("unexpected max", 10000, histogram.getMax(TimeUnit.MICROSECONDS), 0.001);
+        Assert.assertEquals("unexpected median", 5000, histogram.getPercentile(50, TimeUnit.MICROSECONDS), 200);
+        Assert.assertEquals("unexpected percentile", 9900, histogram.getPercentile(99, TimeUnit.MICROSECONDS), 300);
+        Assert.assertEquals("unexpected maximum", 10000, histogram.getPercentile(100, TimeUnit.MICROSECONDS), 0.001);
+
+        histogram.reset();
+        Assert.assertEquals("unexpected count", 0, histogram.getCount());
+        Assert.assertEquals("unexpected percentile", 0, histogram.getPercentile(99, TimeUnit.MICROSECONDS), 0);
+    }
+
+    @Test
+    public void recordExtremesTest() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        Assert.assertEquals("unexpected minimum", 0, histogram.getPercentile(50, TimeUnit.NANOSECONDS), 0);
+        Assert.assertEquals("unexpected maximum", Long.MAX_VALUE,
+                histogram.getPercentile(100, TimeUnit.NANOSECONDS), 0);
+    }
+}
@@ -0,0 +1,31 @@
+package de.g4memas0n.core.database.metrics;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class SlowQueryLogTest {
+
+    @Test
+    public void recordSlowQueriesTest() {
+        SlowQueryLog log = new SlowQueryLog(10, 2);
+        long slow = TimeUnit.MILLISECONDS.toNanos(20);
+
+        log.record("SELECT 1", List.of(), TimeUnit.MILLISECONDS.toNanos(5));
+        Assert.assertTrue("unexpected entries", log.getEntries().isEmpty());
+
+        log.record("SELECT ?", List.of(1), slow);
+        log.record("SELECT ?", List.of(2), slow);
+        log.record("SELECT ?", List.of(3), slow);
+
+        List<SlowQueryLog.Entry> entries = log.getEntries();
+        Assert.assertEquals("unexpected entry count", 2, entries.size());
+        Assert.assertEquals("unexpected oldest entry", List.of(2), entries.get(0).parameters());
+        Assert.assertEquals("unexpected newest entry", List.of(3), entries.get(1).parameters());
+        Assert.assertTrue("unexpected entry format", entries.get(1).toString().startsWith("SELECT ? [3]"));
+
+        log.clear();
+        Assert.assertTrue("unexpected entries", log.getEntries().isEmpty());
+    }
+}
@@ -0,0 +1,80 @@
+package de.g4memas0n.core.database.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchExecutorTest {
+
+    @Test
+    public void executeChunksTest() throws Exception {
+        BulkLoaderTest.connectionTest(connection -> {
+            List<BatchExecutor.Chunk> chunks = new ArrayList<>();
+
+            try (Statement statement = connection.createStatement()) {
+                BatchExecutor executor = new BatchExecutor(statement);
+                executor.setChunkSize(2);
+                executor.setListener(chunks::add);
+
+                Assert.assertEquals("unexpected count", 3, executor.execute(List.of(
+                        "INSERT INTO test (id, name) VALUES (1, 'first')",
+                        "INSERT INTO test (id, name) VALUES (2, 'second')",
+                        "INSERT INTO test (id, name) VALUES (3, 'third')").iterator()));
+            }
+
+            Assert.assertEquals("unexpected chunks", 2, chunks.size());
+            Assert.assertEquals("unexpected chunk size", 2, chunks.get(0).statements());
+            Assert.assertEquals("unexpected chunk updates", 2, chunks.get(0).updates());
+            Assert.assertEquals("unexpected chunk index", 1, chunks.get(1).index());
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:second", "3:third"),
+                    BulkLoaderTest.select(connection));
+        });
+    }
+
+    @Test
+    public void rollbackFailedChunkTest() throws Exception {
+        BulkLoaderTest.connectionTest(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                BatchExecutor executor = new BatchExecutor(statement);
+                executor.setChunkSize(2);
+                executor.setTransactional(true);
+
+                executor.execute(List.of(
+                        "INSERT INTO test (id, name) VALUES (1, 'first')",
+                        "INSERT INTO test (id, name) VALUES (2, 'second')",
+                        "INSERT INTO test (id, name) VALUES (3, 'third')",
+                        "INSERT INTO test (id, name) VALUES (1, 'duplicate')").iterator());
+                Assert.fail("expected duplicate key");
+            } catch (SQLException expected) {
+                // The second chunk must be rolled back
+            }
+
+            Assert.assertTrue("auto-commit not restored", connection.getAutoCommit());
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:second"), BulkLoaderTest.select(connection));
+        });
+    }
+
+    @Test
+    public void keepCallerTransactionTest() throws Exception {
+        BulkLoaderTest.connectionTest(connection -> {
+            connection.setAutoCommit(false);
+
+            try (Statement statement = connection.createStatement()) {
+                BatchExecutor executor = new BatchExecutor(statement);
+                executor.setChunkSize(1);
+                executor.setTransactional(true);
+                executor.execute(List.of(
+                        "INSERT INTO test (id, name) VALUES (1, 'first')",
+                        "INSERT INTO test (id, name) VALUES (2, 'second')").iterator());
+            }
+
+            Assert.assertFalse("auto-commit changed", connection.getAutoCommit());
+            connection.rollback();
+            connection.setAutoCommit(true);
+            Assert.assertEquals("caller transaction committed", List.of(), BulkLoaderTest.select(connection));
+        });
+    }
+}
@@ -2,8 +2,16 @@ package de.g4memas0n.core.database.util;
 
 import org.junit.Assert;
 import org.junit.Test;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.Writer;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BatchReaderTest {
 
@@ -32,4 +40,157 @@ public class BatchReaderTest {
         Assert.assertNotNull("missing batch query", query = batch.get(0));
         Assert.assertEquals("unexpected batch query", expected, query);
     }
+
+    @Test
+    public void readQuotedFileTest() {
+        List<String> batch;
+
+        try {
+            batch = BatchReader.readBatch("batches/test_quoted");
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        Assert.assertEquals("unexpected batch size", 3, batch.size());
+        Assert.assertEquals("unexpected batch query",
+                "INSERT INTO table_name (column_id, column_value) VALUES (1, 'value; -- not a comment')", batch.get(0));
+        Assert.assertEquals("unexpected batch query",
+                "INSERT INTO \"table_name\" (column_id, column_value) VALUES (2, 'it''s  spaced')", batch.get(1));
+        Assert.assertEquals("unexpected batch query",
+                "SELECT column_value FROM table_name WHERE column_id = 1", batch.get(2));
+    }
+
+    @Test
+    public void readEscapedQuotesTest() {
+        String script = "INSERT INTO `table\\` VALUES ('it\\'s; escaped', \"path\\\");\nSELECT 1";
+        List<String> batch;
+
+        try (Stream<String> queries = BatchReader.stream(toStream(script), true)) {
+            batch = queries.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals("unexpected batch size", 2, batch.size());
+        Assert.assertEquals("unexpected batch query",
+                "INSERT INTO `table\\` VALUES ('it\\'s; escaped', \"path\\\")", batch.get(0));
+        Assert.assertEquals("unexpected batch query", "SELECT 1", batch.get(1));
+    }
+
+    @Test
+    public void readLiteralBackslashTest() {
+        String script = "INSERT INTO test VALUES ('C:\\', \"path\\\");\nSELECT 'it''s'";
+        List<String> batch;
+
+        try {
+            batch = BatchReader.readBatch(toStream(script));
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        Assert.assertEquals("unexpected batch size", 2, batch.size());
+        Assert.assertEquals("unexpected batch query", "INSERT INTO test VALUES ('C:\\', \"path\\\")", batch.get(0));
+        Assert.assertEquals("unexpected batch query", "SELECT 'it''s'", batch.get(1));
+    }
+
+    @Test
+    public void streamExistingFileTest() {
+        List<String> expected, batch;
+
+        try {
+            expected = BatchReader.readBatch("batches/test_quoted");
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        try (Stream<String> stream = BatchReader.stream("batches/test_quoted")) {
+            batch = stream.collect(Collectors.toList());
+        }
+
+        Assert.assertEquals("unexpected batch statements", expected, batch);
+    }
+
+    @Test
+    public void readExistingPathTest() {
+        List<String> expected, batch;
+
+        try {
+            expected = BatchReader.readBatch("batches/test_quoted");
+            batch = BatchReader.readBatch(Path.of(getClass().getResource("/batches/test_quoted.sql").toURI()));
+        } catch (IOException | URISyntaxException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        Assert.assertEquals("unexpected batch statements", expected, batch);
+    }
+
+    @Test
+    public void readMappedPathTest() {
+        String query = "INSERT INTO table_name (column_value) VALUES ('\u00e4\u00f6\u00fc \u20ac \ud83d\ude00')";
+        List<String> batch;
+        Path file;
+
+        try {
+            file = Files.createTempFile("batch", ".sql");
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (int index = 0; index < 20000; index++) {
+                    writer.write(query);
+                    writer.write(";\n");
+                }
+            }
+
+            Assert.assertTrue("file too small", Files.size(file) > (1 << 20));
+            batch = BatchReader.readBatch(file);
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        } finally {
+            file.toFile().deleteOnExit();
+        }
+
+        Assert.assertEquals("unexpected batch size", 20000, batch.size());
+        for (String statement : batch) {
+            Assert.assertEquals("unexpected batch query", query, statement);
+        }
+    }
+
+    @Test
+    public void readCachedFileTest() {
+        List<String> first, second;
+
+        try {
+            BatchReader.invalidate("batches/test");
+            first = BatchReader.readBatch("batches/test");
+            first.clear();
+            second = BatchReader.readBatch("batches/test.sql");
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        Assert.assertNotSame("cached batch returned", first, second);
+        Assert.assertFalse("cached batch modified", second.isEmpty());
+
+        try {
+            BatchReader.invalidate("batches/test");
+            first = BatchReader.readBatch("batches/test");
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+            return;
+        }
+
+        Assert.assertEquals("unexpected batch statements", first, second);
+    }
+
+    private static ByteArrayInputStream toStream(String script) {
+        return new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,140 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.H2Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+public class BulkImporterTest {
+
+    private static final String CSV = "1,first,\"quoted, \"\"value\"\"\"\n2,second,\n3,third,\"\"\n4,fourth,last\n";
+
+    @Test
+    public void importSQLiteTest() throws Exception {
+        importTest(directory -> new SQLiteConnector(directory.resolve("test.db")));
+    }
+
+    @Test
+    public void importH2Test() throws Exception {
+        importTest(directory -> new H2Connector(directory.resolve("test")));
+    }
+
+    @Test
+    public void importFallbackTest() throws Exception {
+        importTest(directory -> new SQLiteConnector(directory.resolve("test.db")) {
+            @Override
+            public @NotNull String getVendorName() {
+                return "Generic";
+            }
+        });
+    }
+
+    @Test
+    public void rollbackFailedImportTest() throws Exception {
+        Path directory = Files.createTempDirectory("import");
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        try {
+            createTable(connector);
+
+            BulkImporter importer = new BulkImporter(connector, "test", "id", "name", "note");
+            try {
+                importer.load(List.of(new Object[] {1, "first", null}, new Object[] {1, "duplicate", null}));
+                Assert.fail("expected duplicate key");
+            } catch (SQLException expected) {
+                // The whole import must be rolled back
+            }
+
+            Assert.assertEquals("unexpected rows", List.of(), select(connector));
+            Assert.assertEquals("synchronous not restored", "2", pragma(connector));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static void importTest(@NotNull ConnectorFactory factory) throws Exception {
+        Path directory = Files.createTempDirectory("import");
+        Connector connector = factory.create(directory);
+        connector.configure(new Properties());
+
+        try {
+            createTable(connector);
+
+            BulkImporter importer = new BulkImporter(connector, "test", "id", "name", "note");
+            importer.setChunkSize(3);
+
+            List<Object[]> rows = new ArrayList<>();
+            try (CsvReader reader = new CsvReader(new StringReader(CSV), ',')) {
+                for (String[] record = reader.next(); record != null; record = reader.next()) {
+                    rows.add(record);
+                }
+            }
+
+            Assert.assertEquals("unexpected import count", 4, importer.load(rows));
+            Assert.assertEquals("unexpected rows", List.of("1|first|quoted, \"value\"", "2|second|null",
+                    "3|third|", "4|fourth|last"), select(connector));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static void createTable(@NotNull Connector connector) throws SQLException {
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY, name VARCHAR(32), note VARCHAR(32))");
+        }
+    }
+
+    private static @NotNull List<String> select(@NotNull Connector connector) throws SQLException {
+        List<String> rows = new ArrayList<>();
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT id, name, note FROM test ORDER BY id")) {
+            while (result.next()) {
+                rows.add(result.getInt(1) + "|" + result.getString(2) + "|" + result.getString(3));
+            }
+        }
+
+        return rows;
+    }
+
+    private static String pragma(@NotNull Connector connector) throws SQLException {
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("PRAGMA synchronous")) {
+            return result.next() ? result.getString(1) : null;
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectorFactory {
+        @NotNull Connector create(@NotNull Path directory);
+    }
+}
@@ -0,0 +1,130 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+public class BulkLoaderTest {
+
+    private static final String INSERT = "INSERT INTO test (id, name) VALUES (?, ?)";
+
+    @Test
+    public void loadChunksTest() throws Exception {
+        connectionTest(connection -> {
+            BulkLoader loader = new BulkLoader(connection, INSERT);
+            loader.setChunkSize(2);
+
+            Assert.assertEquals("unexpected load count", 5, loader.load(List.of(row(1, "first"), row(2, "second"),
+                    row(3, null), row(4, "fourth"), row(5, "fifth"))));
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:second", "3:null", "4:fourth", "5:fifth"),
+                    select(connection));
+        });
+    }
+
+    @Test
+    public void clearParametersTest() throws Exception {
+        connectionTest(connection -> {
+            BulkLoader loader = new BulkLoader(connection, INSERT);
+
+            loader.load(List.of(row(1, "first"), row(2)));
+            Assert.assertEquals("stale parameter bound", List.of("1:first", "2:null"), select(connection));
+        });
+    }
+
+    @Test
+    public void rollbackFailedChunkTest() throws Exception {
+        connectionTest(connection -> {
+            BulkLoader loader = new BulkLoader(connection, INSERT);
+            loader.setChunkSize(2);
+            loader.setTransactional(true);
+
+            try {
+                loader.load(List.of(row(1, "first"), row(2, "second"), row(3, "third"), row(1, "duplicate")));
+                Assert.fail("expected duplicate key");
+            } catch (SQLException expected) {
+                // The second chunk must be rolled back
+            }
+
+            Assert.assertTrue("auto-commit not restored", connection.getAutoCommit());
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:second"), select(connection));
+        });
+    }
+
+    @Test
+    public void keepCallerTransactionTest() throws Exception {
+        connectionTest(connection -> {
+            BulkLoader loader = new BulkLoader(connection, INSERT);
+            loader.setChunkSize(1);
+            loader.setTransactional(true);
+
+            connection.setAutoCommit(false);
+            loader.load(List.of(row(1, "first"), row(2, "second")));
+            Assert.assertFalse("auto-commit changed", connection.getAutoCommit());
+
+            connection.rollback();
+            connection.setAutoCommit(true);
+            Assert.assertEquals("caller transaction committed", List.of(), select(connection));
+        });
+    }
+
+    static void connectionTest(ConnectionCheck check) throws Exception {
+        Path directory = Files.createTempDirectory("batch");
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        try (Connection connection = connector.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT)");
+            }
+
+            check.accept(connection);
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    static List<String> select(Connection connection) throws SQLException {
+        List<String> rows = new ArrayList<>();
+
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT id, name FROM test ORDER BY id")) {
+            while (result.next()) {
+                rows.add(result.getInt(1) + ":" + result.getString(2));
+            }
+        }
+
+        return rows;
+    }
+
+    private static Object[] row(Object... values) {
+        return Arrays.copyOf(values, values.length);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface ConnectionCheck {
+        void accept(Connection connection) throws Exception;
+    }
+}
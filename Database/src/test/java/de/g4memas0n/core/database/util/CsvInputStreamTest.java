@@ -0,0 +1,44 @@
+package de.g4memas0n.core.database.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class CsvInputStreamTest {
+
+    @Test
+    public void encodeRowsTest() throws IOException {
+        List<Object[]> rows = List.of(new Object[] {1, "quoted, \"value\"", null}, new Object[] {true, "", "\u00fc"});
+
+        try (CsvInputStream stream = new CsvInputStream(rows.iterator(), "NULL")) {
+            Assert.assertEquals("unexpected csv", "\"1\",\"quoted, \"\"value\"\"\",NULL\n\"1\",\"\",\"\u00fc\"\n",
+                    new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void readSmallBuffersTest() throws IOException {
+        List<Object[]> rows = List.of(new Object[] {"first", "\u00fc"}, new Object[] {null, "multi\nline"});
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        try (CsvInputStream stream = new CsvInputStream(rows.iterator(), "")) {
+            byte[] buffer = new byte[3];
+            for (int length = stream.read(buffer, 0, 3); length >= 0; length = stream.read(buffer, 0, 3)) {
+                output.write(buffer, 0, length);
+            }
+            Assert.assertEquals("unexpected end", -1, stream.read());
+        }
+
+        try (CsvReader reader = new CsvReader(new InputStreamReader(
+                new ByteArrayInputStream(output.toByteArray()), StandardCharsets.UTF_8), ',')) {
+            Assert.assertArrayEquals("unexpected record", new String[] {"first", "\u00fc"}, reader.next());
+            Assert.assertArrayEquals("unexpected record", new String[] {null, "multi\nline"}, reader.next());
+            Assert.assertNull("unexpected record", reader.next());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package de.g4memas0n.core.database.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.io.StringReader;
+
+public class CsvReaderTest {
+
+    @Test
+    public void readRecordsTest() {
+        String input = "id,value\r\n1,\"quoted, \"\"value\"\"\"\n\n2,,\"\"\n3,\"multi\nline\"";
+
+        try (CsvReader reader = new CsvReader(new StringReader(input), ',')) {
+            Assert.assertArrayEquals("unexpected header", new String[] {"id", "value"}, reader.next());
+            Assert.assertArrayEquals("unexpected record", new String[] {"1", "quoted, \"value\""}, reader.next());
+            Assert.assertArrayEquals("unexpected record", new String[] {"2", null, ""}, reader.next());
+            Assert.assertArrayEquals("unexpected record", new String[] {"3", "multi\nline"}, reader.next());
+            Assert.assertNull("unexpected record", reader.next());
+        } catch (IOException ex) {
+            Assert.fail(ex.toString());
+        }
+    }
+}
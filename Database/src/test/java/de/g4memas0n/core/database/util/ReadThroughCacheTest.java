@@ -0,0 +1,193 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class ReadThroughCacheTest {
+
+    @Test
+    public void recordStatsTest() throws Exception {
+        cacheTest((connector, loads) -> {
+            ReadThroughCache<Integer, String> cache = createCache(connector, loads, 10, 0);
+
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+            Assert.assertNull("unexpected value", cache.get(3));
+            Assert.assertNull("unexpected value", cache.get(3));
+            Assert.assertEquals("unexpected value", "first", cache.getIfPresent(1));
+            Assert.assertNull("unexpected value", cache.getIfPresent(2));
+
+            Assert.assertEquals("unexpected loads", 2, loads.get());
+            Assert.assertEquals("unexpected stats", new ReadThroughCache.Stats(3, 3, 0), cache.getStats());
+        });
+    }
+
+    @Test
+    public void evictBySizeTest() throws Exception {
+        cacheTest((connector, loads) -> {
+            ReadThroughCache<Integer, String> cache = createCache(connector, loads, 1, 0);
+
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+            Assert.assertEquals("unexpected value", "second", cache.get(2));
+            Assert.assertEquals("unexpected size", 1, cache.size());
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+
+            Assert.assertEquals("unexpected loads", 3, loads.get());
+            Assert.assertEquals("unexpected evictions", 2, cache.getStats().evictions());
+        });
+    }
+
+    @Test
+    public void expireAfterLoadTest() throws Exception {
+        cacheTest((connector, loads) -> {
+            ReadThroughCache<Integer, String> cache = createCache(connector, loads, 10, 50);
+
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+            update(connector, 1, "changed");
+            Assert.assertEquals("value not cached", "first", cache.get(1));
+
+            Thread.sleep(100);
+
+            Assert.assertEquals("value not expired", "changed", cache.get(1));
+            Assert.assertEquals("unexpected loads", 2, loads.get());
+            Assert.assertEquals("unexpected evictions", 1, cache.getStats().evictions());
+        });
+    }
+
+    @Test
+    public void invalidateTest() throws Exception {
+        cacheTest((connector, loads) -> {
+            ReadThroughCache<Integer, String> cache = createCache(connector, loads, 10, 0);
+
+            Assert.assertEquals("unexpected value", "first", cache.get(1));
+            Assert.assertEquals("unexpected value", "second", cache.get(2));
+            update(connector, 1, "changed");
+            update(connector, 2, "changed");
+
+            cache.invalidate(1);
+            Assert.assertEquals("value not invalidated", "changed", cache.get(1));
+            Assert.assertEquals("value invalidated", "second", cache.get(2));
+
+            cache.put(2, "replaced");
+            Assert.assertEquals("value not replaced", "replaced", cache.get(2));
+
+            cache.invalidateAll();
+            Assert.assertEquals("unexpected size", 0, cache.size());
+            Assert.assertEquals("value not invalidated", "changed", cache.get(2));
+            Assert.assertEquals("unexpected loads", 4, loads.get());
+        });
+    }
+
+    @Test
+    public void shareConcurrentLoadsTest() throws Exception {
+        cacheTest((connector, loads) -> {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            ReadThroughCache<Integer, String> cache = new ReadThroughCache<>(connector, (connection, key) -> {
+                loads.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return "value " + key;
+            }, 10, 0);
+
+            List<CompletableFuture<String>> lookups = new ArrayList<>();
+            for (int index = 0; index < 4; index++) {
+                lookups.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return cache.get(1);
+                    } catch (SQLException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }));
+            }
+
+            Assert.assertTrue("load not started", started.await(30, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            release.countDown();
+
+            for (CompletableFuture<String> lookup : lookups) {
+                Assert.assertEquals("unexpected value", "value 1", lookup.get(30, TimeUnit.SECONDS));
+            }
+            Assert.assertEquals("unexpected loads", 1, loads.get());
+        });
+    }
+
+    private void cacheTest(CacheCheck check) throws Exception {
+        Path directory = Files.createTempDirectory("cache");
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        try {
+            try (Connection connection = connector.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT NOT NULL)");
+                statement.execute("INSERT INTO test (id, name) VALUES (1, 'first'), (2, 'second')");
+            }
+
+            check.accept(connector, new AtomicInteger());
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static ReadThroughCache<Integer, String> createCache(Connector connector, AtomicInteger loads,
+                                                                 long maximumSize, long expireAfter) {
+        return new ReadThroughCache<>(connector, (connection, key) -> {
+            loads.incrementAndGet();
+
+            try (PreparedStatement statement = connection.prepareStatement("SELECT name FROM test WHERE id = ?")) {
+                statement.setInt(1, key);
+
+                try (ResultSet result = statement.executeQuery()) {
+                    return result.next() ? result.getString(1) : null;
+                }
+            }
+        }, maximumSize, expireAfter);
+    }
+
+    private static void update(Connector connector, int id, String name) throws SQLException {
+        try (Connection connection = connector.getConnection();
+             PreparedStatement statement = connection.prepareStatement("UPDATE test SET name = ? WHERE id = ?")) {
+            statement.setString(1, name);
+            statement.setInt(2, id);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CacheCheck {
+        void accept(Connector connector, AtomicInteger loads) throws Exception;
+    }
+}
@@ -0,0 +1,160 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+public class SchemaMigratorTest {
+
+    @Test
+    public void applyPendingVersionsTest() throws Exception {
+        migratorTest((directory, connector, migrator) -> {
+            write(directory, "V1__create_test.sql", "CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT);");
+            write(directory, "V2__insert_rows.sql", "INSERT INTO test VALUES (1, 'first');\n"
+                    + "INSERT INTO test VALUES (2, 'it''s; second');");
+
+            Assert.assertEquals("unexpected applied versions", 2, migrator.migrate());
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:it's; second"),
+                    select(connector, "SELECT id, name FROM test ORDER BY id"));
+
+            write(directory, "V3__insert_row.sql", "INSERT INTO test VALUES (3, 'third');");
+
+            Assert.assertEquals("unexpected applied versions", 1, migrator.migrate());
+            Assert.assertEquals("unexpected history", List.of("1:create test", "2:insert rows", "3:insert row"),
+                    select(connector, "SELECT version, description FROM schema_history ORDER BY version"));
+        });
+    }
+
+    @Test
+    public void skipAppliedVersionsTest() throws Exception {
+        migratorTest((directory, connector, migrator) -> {
+            write(directory, "V1__create_test.sql", "CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT);");
+            write(directory, "V2__insert_row.sql", "INSERT INTO test VALUES (1, 'first');");
+
+            Assert.assertEquals("unexpected applied versions", 2, migrator.migrate());
+            Assert.assertEquals("unexpected applied versions", 0, migrator.migrate());
+            Assert.assertEquals("unexpected rows", List.of("1:first"),
+                    select(connector, "SELECT id, name FROM test ORDER BY id"));
+            Assert.assertEquals("unexpected history", List.of("1:create test", "2:insert row"),
+                    select(connector, "SELECT version, description FROM schema_history ORDER BY version"));
+        });
+    }
+
+    @Test
+    public void detectChecksumMismatchTest() throws Exception {
+        migratorTest((directory, connector, migrator) -> {
+            write(directory, "V1__create_test.sql", "CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT);");
+            Assert.assertEquals("unexpected applied versions", 1, migrator.migrate());
+
+            write(directory, "V1__create_test.sql", "CREATE TABLE test (id INTEGER PRIMARY KEY);");
+            write(directory, "V2__insert_row.sql", "INSERT INTO test VALUES (1, 'first');");
+
+            try {
+                migrator.migrate();
+                Assert.fail("expected checksum mismatch");
+            } catch (IllegalStateException ex) {
+                Assert.assertEquals("unexpected error", "checksum mismatch for applied version 1", ex.getMessage());
+            }
+
+            Assert.assertEquals("pending version applied", List.of(),
+                    select(connector, "SELECT id, name FROM test ORDER BY id"));
+        });
+    }
+
+    @Test
+    public void rollbackFailingVersionTest() throws Exception {
+        migratorTest((directory, connector, migrator) -> {
+            write(directory, "V1__create_test.sql", "CREATE TABLE test (id INTEGER PRIMARY KEY, name TEXT);");
+            write(directory, "V2__insert_rows.sql", "INSERT INTO test VALUES (1, 'first');\n"
+                    + "CREATE TABLE other (id INTEGER PRIMARY KEY);\n"
+                    + "INSERT INTO missing VALUES (2, 'second');");
+
+            try {
+                migrator.migrate();
+                Assert.fail("expected failing version");
+            } catch (SQLException expected) {
+                // The failing version must be rolled back as a whole
+            }
+
+            Assert.assertEquals("failing version not rolled back", List.of(),
+                    select(connector, "SELECT id, name FROM test ORDER BY id"));
+            Assert.assertEquals("failing version not rolled back", List.of(),
+                    select(connector, "SELECT name, type FROM sqlite_master WHERE name = 'other'"));
+            Assert.assertEquals("unexpected history", List.of("1:create test"),
+                    select(connector, "SELECT version, description FROM schema_history ORDER BY version"));
+
+            write(directory, "V2__insert_rows.sql", "INSERT INTO test VALUES (1, 'first');\n"
+                    + "INSERT INTO test VALUES (2, 'second');");
+
+            Assert.assertEquals("unexpected applied versions", 1, migrator.migrate());
+            Assert.assertEquals("unexpected rows", List.of("1:first", "2:second"),
+                    select(connector, "SELECT id, name FROM test ORDER BY id"));
+        });
+    }
+
+    private static void migratorTest(@NotNull MigratorCheck check) throws Exception {
+        Path directory = Files.createTempDirectory("migration");
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        Files.createDirectory(directory.resolve("migrations"));
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {directory.toUri().toURL()}, null)) {
+            check.accept(directory.resolve("migrations"), connector,
+                    new SchemaMigrator(connector, loader, "migrations/"));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static void write(@NotNull Path directory, @NotNull String name,
+                              @NotNull String content) throws IOException {
+        Files.writeString(directory.resolve(name), content);
+    }
+
+    private static @NotNull List<String> select(@NotNull Connector connector,
+                                                @NotNull String query) throws SQLException {
+        List<String> rows = new ArrayList<>();
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(query)) {
+            while (result.next()) {
+                rows.add(result.getString(1) + ":" + result.getString(2));
+            }
+        }
+
+        return rows;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface MigratorCheck {
+        void accept(@NotNull Path directory, @NotNull Connector connector,
+                    @NotNull SchemaMigrator migrator) throws Exception;
+    }
+}
@@ -0,0 +1,201 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.H2Connector;
+import de.g4memas0n.core.database.connector.MySQLConnector;
+import de.g4memas0n.core.database.connector.PostgresConnector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import de.g4memas0n.core.database.metrics.ConnectorMetrics;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class TransactionTemplateTest {
+
+    @Test
+    public void retryTransientErrorsTest() throws Exception {
+        Path directory = Files.createTempDirectory("transaction");
+        Connector connector = createConnector(directory);
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(connector);
+            template.setBackoff(1, 5);
+
+            AtomicInteger attempts = new AtomicInteger();
+            int result = template.execute(connection -> {
+                insert(connection, attempts.get());
+                if (attempts.incrementAndGet() < 3) {
+                    throw new SQLException("database is locked", null, 5);
+                }
+                return attempts.get();
+            });
+
+            ConnectorMetrics metrics = connector.getMetrics();
+            Assert.assertNotNull("missing metrics", metrics);
+            Assert.assertEquals("unexpected result", 3, result);
+            Assert.assertEquals("unexpected rows", List.of(2), select(connector));
+            Assert.assertEquals("unexpected retries", 2, metrics.getTransactionRetries());
+            Assert.assertEquals("unexpected failures", 0, metrics.getTransactionRetryFailures());
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void giveUpAfterMaxRetriesTest() throws Exception {
+        Path directory = Files.createTempDirectory("transaction");
+        Connector connector = createConnector(directory);
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(connector);
+            template.setBackoff(1, 5);
+            template.setMaxRetries(2);
+
+            AtomicInteger attempts = new AtomicInteger();
+            try {
+                template.execute(connection -> {
+                    insert(connection, attempts.incrementAndGet());
+                    throw new SQLException("database is locked", null, 5);
+                });
+                Assert.fail("expected transient error");
+            } catch (SQLException ex) {
+                Assert.assertEquals("unexpected error code", 5, ex.getErrorCode());
+            }
+
+            ConnectorMetrics metrics = connector.getMetrics();
+            Assert.assertNotNull("missing metrics", metrics);
+            Assert.assertEquals("unexpected attempts", 3, attempts.get());
+            Assert.assertEquals("unexpected rows", List.of(), select(connector));
+            Assert.assertEquals("unexpected retries", 2, metrics.getTransactionRetries());
+            Assert.assertEquals("unexpected failures", 1, metrics.getTransactionRetryFailures());
+
+            attempts.set(0);
+            try {
+                template.execute(connection -> {
+                    attempts.incrementAndGet();
+                    throw new SQLException("constraint failed", null, 19);
+                });
+                Assert.fail("expected permanent error");
+            } catch (SQLException ex) {
+                Assert.assertEquals("unexpected attempts", 1, attempts.get());
+            }
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void rollbackOnErrorTest() throws Exception {
+        Path directory = Files.createTempDirectory("transaction");
+        Connector connector = createConnector(directory);
+
+        try {
+            TransactionTemplate template = new TransactionTemplate(connector);
+
+            try {
+                template.execute(connection -> {
+                    insert(connection, 1);
+                    throw new AssertionError("callback failed");
+                });
+                Assert.fail("expected error");
+            } catch (AssertionError ex) {
+                Assert.assertEquals("unexpected error", "callback failed", ex.getMessage());
+            }
+
+            Assert.assertEquals("unexpected rows", List.of(), select(connector));
+            Assert.assertEquals("unexpected result", 2, (int) template.execute(connection -> {
+                insert(connection, 2);
+                return 2;
+            }));
+            Assert.assertEquals("unexpected rows", List.of(2), select(connector));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void classifyRetryableTest() {
+        TransactionTemplate mysql = new TransactionTemplate(new MySQLConnector());
+        Assert.assertTrue("deadlock", mysql.isRetryable(new SQLException("deadlock", "40001", 1213)));
+        Assert.assertTrue("lock wait", mysql.isRetryable(new SQLException("lock wait", "HY000", 1205)));
+        Assert.assertFalse("duplicate", mysql.isRetryable(new SQLException("duplicate", "23000", 1062)));
+
+        TransactionTemplate postgres = new TransactionTemplate(new PostgresConnector());
+        Assert.assertTrue("serialization", postgres.isRetryable(new SQLException("serialization", "40001")));
+        Assert.assertTrue("deadlock", postgres.isRetryable(new SQLException("deadlock", "40P01")));
+        Assert.assertFalse("unique", postgres.isRetryable(new SQLException("unique", "23505")));
+
+        TransactionTemplate sqlite = new TransactionTemplate(new SQLiteConnector(Path.of("test.db")));
+        Assert.assertTrue("busy", sqlite.isRetryable(new SQLException("busy", null, 5)));
+        Assert.assertTrue("busy snapshot", sqlite.isRetryable(new SQLException("busy snapshot", null, 517)));
+        Assert.assertFalse("constraint", sqlite.isRetryable(new SQLException("constraint", null, 19)));
+
+        TransactionTemplate h2 = new TransactionTemplate(new H2Connector(Path.of("test")));
+        Assert.assertTrue("lock timeout", h2.isRetryable(new SQLException("lock timeout", "HYT00", 50200)));
+
+        SQLException wrapped = new SQLException("batch failed", "HY000", 0);
+        wrapped.setNextException(new SQLException("deadlock", "40001", 1213));
+        Assert.assertTrue("next exception", mysql.isRetryable(wrapped));
+        Assert.assertTrue("cause", mysql.isRetryable(new SQLException("outer", new SQLException("x", "40001"))));
+    }
+
+    private static Connector createConnector(Path directory) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("metrics", "true");
+
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(properties);
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE test (id INTEGER PRIMARY KEY)");
+        }
+
+        return connector;
+    }
+
+    private static void insert(Connection connection, int id) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO test (id) VALUES (?)")) {
+            statement.setInt(1, id);
+            statement.executeUpdate();
+        }
+    }
+
+    private static List<Integer> select(Connector connector) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT id FROM test ORDER BY id")) {
+            while (result.next()) {
+                ids.add(result.getInt(1));
+            }
+        }
+
+        return ids;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
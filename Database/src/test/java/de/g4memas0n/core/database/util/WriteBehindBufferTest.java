@@ -0,0 +1,178 @@
+package de.g4memas0n.core.database.util;
+
+import de.g4memas0n.core.database.connector.Connector;
+import de.g4memas0n.core.database.connector.SQLiteConnector;
+import org.junit.Assert;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+public class WriteBehindBufferTest {
+
+    private static final String UPSERT = "INSERT INTO counter (name, value) VALUES (?, ?) "
+            + "ON CONFLICT (name) DO UPDATE SET value = value + excluded.value";
+
+    @Test
+    public void coalesceUpdatesTest() throws Exception {
+        Path directory = Files.createTempDirectory("buffer");
+        Connector connector = createConnector(directory, true);
+
+        try {
+            WriteBehindBuffer<String, Integer> buffer = createBuffer(connector);
+            buffer.put("first", 1);
+            buffer.put("first", 2);
+            buffer.put("second", 3);
+            buffer.put("first", 4);
+
+            Assert.assertEquals("updates not coalesced", 2, buffer.size());
+            Assert.assertEquals("unexpected flush count", 2, buffer.flush());
+            Assert.assertEquals("unexpected values", Map.of("first", 7, "second", 3), select(connector));
+            Assert.assertEquals("unexpected flush count", 0, buffer.flush());
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void flushOnThresholdTest() throws Exception {
+        Path directory = Files.createTempDirectory("buffer");
+        Connector connector = createConnector(directory, true);
+
+        try {
+            WriteBehindBuffer<String, Integer> buffer = createBuffer(connector);
+            buffer.setThreshold(3);
+            buffer.put("first", 1);
+            buffer.put("second", 2);
+            Assert.assertEquals("flushed before threshold", Map.of(), select(connector));
+
+            buffer.put("third", 3);
+            for (int wait = 0; buffer.size() > 0 && wait < 100; wait++) {
+                Thread.sleep(50);
+            }
+
+            Assert.assertEquals("updates not flushed", 0, buffer.size());
+            Assert.assertEquals("unexpected values", Map.of("first", 1, "second", 2, "third", 3), select(connector));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void mergeFailedFlushTest() throws Exception {
+        Path directory = Files.createTempDirectory("buffer");
+        Connector connector = createConnector(directory, false);
+
+        try {
+            WriteBehindBuffer<String, Integer> buffer = createBuffer(connector);
+            buffer.put("first", 1);
+            buffer.put("second", 2);
+
+            try {
+                buffer.flush();
+                Assert.fail("expected missing table");
+            } catch (SQLException expected) {
+                // The updates must be merged back into the buffer
+            }
+
+            Assert.assertEquals("updates not merged back", 2, buffer.size());
+            buffer.put("first", 10);
+            createTable(connector);
+
+            Assert.assertEquals("unexpected flush count", 2, buffer.flush());
+            Assert.assertEquals("unexpected values", Map.of("first", 11, "second", 2), select(connector));
+        } finally {
+            connector.shutdown();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void flushOnShutdownTest() throws Exception {
+        Path directory = Files.createTempDirectory("buffer");
+        Connector connector = createConnector(directory, true);
+        WriteBehindBuffer<String, Integer> buffer;
+
+        try {
+            buffer = createBuffer(connector);
+            buffer.put("first", 1);
+            buffer.put("second", 2);
+        } finally {
+            connector.shutdown();
+        }
+
+        try {
+            buffer.put("third", 3);
+            Assert.fail("closed buffer accepted update");
+        } catch (IllegalStateException expected) {
+            // The buffer must be closed by the connector shutdown
+        }
+
+        Connector reopened = createConnector(directory, false);
+
+        try {
+            Assert.assertEquals("updates not flushed", Map.of("first", 1, "second", 2), select(reopened));
+        } finally {
+            reopened.shutdown();
+            delete(directory);
+        }
+    }
+
+    private static WriteBehindBuffer<String, Integer> createBuffer(Connector connector) {
+        return new WriteBehindBuffer<>(connector, UPSERT, (statement, key, value) -> {
+            statement.setString(1, key);
+            statement.setInt(2, value);
+        }, Integer::sum, 60000);
+    }
+
+    private static Connector createConnector(Path directory, boolean table) throws SQLException {
+        Connector connector = new SQLiteConnector(directory.resolve("test.db"));
+        connector.configure(new Properties());
+
+        if (table) {
+            createTable(connector);
+        }
+
+        return connector;
+    }
+
+    private static void createTable(Connector connector) throws SQLException {
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE counter (name TEXT PRIMARY KEY, value INTEGER NOT NULL)");
+        }
+    }
+
+    private static Map<String, Integer> select(Connector connector) throws SQLException {
+        Map<String, Integer> values = new TreeMap<>();
+
+        try (Connection connection = connector.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT name, value FROM counter")) {
+            while (result.next()) {
+                values.put(result.getString(1), result.getInt(2));
+            }
+        }
+
+        return values;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/* test block comment
+   spanning multiple lines; */
+INSERT INTO table_name (column_id, column_value) VALUES (1, 'value; -- not a comment');
+INSERT INTO "table_name" (column_id,   column_value)
+    VALUES (2, 'it''s  spaced'); -- test comment after the statement
+
+SELECT column_value
+FROM table_name /* inline comment */ WHERE column_id = 1